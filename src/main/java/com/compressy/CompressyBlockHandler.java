@@ -1,20 +1,29 @@
 package com.compressy;
 
-import java.util.List;
+import com.compressy.component.CompressionComponent;
+import com.compressy.config.CompressionRules;
+import com.compressy.item.CompressedItemText;
+import com.compressy.item.CompressedStacks;
+import com.compressy.world.BulkRemovals;
+import com.compressy.world.CompressedBlock;
+import com.compressy.world.CompressedBlockStorage;
+import com.compressy.world.DisplayBudget;
+import com.compressy.world.DisplayRegistry;
+import com.compressy.world.DisplayVisibility;
+import com.compressy.world.OverlayMerger;
+import com.compressy.world.Reconciler;
 
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerEntityEvents;
 import net.fabricmc.fabric.api.event.player.PlayerBlockBreakEvents;
 import net.fabricmc.fabric.api.event.player.UseBlockCallback;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
-import net.minecraft.component.DataComponentTypes;
-import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityType;
 import net.minecraft.entity.SpawnReason;
 import net.minecraft.entity.decoration.DisplayEntity;
 import net.minecraft.entity.decoration.InteractionEntity;
 import net.minecraft.item.ItemStack;
-import net.minecraft.nbt.NbtCompound;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.text.Text;
@@ -22,20 +31,23 @@ import net.minecraft.util.ActionResult;
 import net.minecraft.util.Formatting;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.math.Box;
-import net.minecraft.world.World;
 
 /**
  * Handles compressed block placement and breaking.
  * 
- * APPROACH (like totem-rituals):
+ * APPROACH:
  * 1. Place the ACTUAL BLOCK (full collision, redstone, piston behavior, etc.)
- * 2. Summon an INTERACTION entity at the block to store compression data
- * 3. Add a TEXT_DISPLAY above for Roman numeral tier
- * 4. Add a BLOCK_DISPLAY overlay (tinted glass) for darkening effect
- * 5. On block break, intercept and drop the compressed item instead
+ * 2. Record the compression data in the chunk itself (see {@link CompressedBlockStorage})
+ * 3. Add a TEXT_DISPLAY above for Roman numeral tier (only if the space above is free)
+ * 4. Add a BLOCK_DISPLAY overlay (tinted glass) for darkening effect (only if a face is exposed)
+ * 5. On block break, read the chunk data and drop the compressed item instead
  * 
  * This preserves all vanilla block behavior while storing compression data!
+ * 
+ * Display entities are found through the {@link DisplayRegistry} - nothing scans for them.
+ * 
+ * Worlds from older versions stored the data on an INTERACTION marker entity.
+ * Those markers are migrated into chunk data the first time they load.
  */
 public class CompressyBlockHandler {
     
@@ -48,6 +60,17 @@ public class CompressyBlockHandler {
      * Register all event handlers
      */
     public static void register() {
+        // Keep the compressed block index in sync with loaded chunks
+        CompressedBlockStorage.register();
+        // Keep track of loaded label/overlay entities
+        DisplayRegistry.register();
+        DisplayVisibility.register();
+        // Explosions, quarries, /fill and friends - batched per chunk
+        BulkRemovals.register();
+        DisplayBudget.register();
+        // Clean up whatever is still left behind (e.g., changes while the server was down)
+        Reconciler.register();
+        
         // Intercept block placement for compressed items
         UseBlockCallback.EVENT.register((player, world, hand, hitResult) -> {
             ItemStack heldItem = player.getStackInHand(hand);
@@ -81,8 +104,9 @@ public class CompressyBlockHandler {
                 
                 // Only allow placing FULL CUBE blocks (no flowers, torches, etc.)
                 // These non-solid blocks cause issues with data preservation
+                // (precomputed per block in the compiled rule table)
                 BlockState state = block.getDefaultState();
-                if (!state.isFullCube(world, placePos)) {
+                if (!CompressionRules.isFullCube(block)) {
                     player.sendMessage(
                         Text.literal("✗ Cannot place compressed non-solid blocks (flowers, torches, etc.)")
                             .formatted(Formatting.RED),
@@ -95,7 +119,7 @@ public class CompressyBlockHandler {
                 world.setBlockState(placePos, state);
                 
                 // Now add our marker entities
-                createCompressionMarker(serverWorld, placePos, blockId, level);
+                createCompressionMarker(serverWorld, placePos, blockId, level, player.getUuid());
                 
                 // Consume the item (unless creative)
                 if (!player.isCreative()) {
@@ -109,7 +133,7 @@ public class CompressyBlockHandler {
                 
                 // Send feedback
                 player.sendMessage(
-                    Text.literal("Placed compressed " + formatBlockName(blockId) + " (Tier " + toRoman(level) + ")")
+                    Text.literal("Placed compressed " + CompressedItemText.formatBlockName(blockId) + " (Tier " + CompressedItemText.toRoman(level) + ")")
                         .formatted(Formatting.GOLD), 
                     true
                 );
@@ -126,47 +150,31 @@ public class CompressyBlockHandler {
                 return true; // Continue breaking on client
             }
             
-            // Check if there's a compression marker at this position
-            List<InteractionEntity> markers = world.getEntitiesByClass(
-                InteractionEntity.class,
-                new Box(pos),
-                e -> e.getCommandTags().contains(MARKER_TAG)
-            );
-            
-            if (markers.isEmpty()) {
-                return true; // No marker, normal block break
+            if (!(world instanceof ServerWorld serverWorld)) {
+                return true;
             }
             
-            // Found a marker! This is a compressed block
-            InteractionEntity marker = markers.get(0);
-            
-            // Get compression data from command tags
-            int level = 1;
-            String blockId = net.minecraft.registry.Registries.BLOCK.getId(state.getBlock()).toString();
+            // Fast path: one bit test rules out almost every normal block break
+            if (!CompressedBlockStorage.mightBeCompressed(serverWorld, pos)) {
+                return true;
+            }
             
-            // Parse level and block ID from command tags
-            for (String tag : marker.getCommandTags()) {
-                if (tag.startsWith("compressy.level.")) {
-                try {
-                        level = Integer.parseInt(tag.substring("compressy.level.".length()));
-                } catch (NumberFormatException e) {
-                        // Use default
-                    }
-                } else if (tag.startsWith("compressy.block.")) {
-                    // Convert back from tag format (dots) to ID format (colon)
-                    String tagBlockId = tag.substring("compressy.block.".length());
-                    int firstDot = tagBlockId.indexOf('.');
-                    if (firstDot > 0) {
-                        blockId = tagBlockId.substring(0, firstDot) + ":" + tagBlockId.substring(firstDot + 1);
-                    }
-                }
+            // Check the index for a compressed block at this position
+            CompressedBlock compressed = CompressedBlockStorage.get(serverWorld, pos);
+            if (compressed == null) {
+                return true; // Not compressed, normal block break
             }
             
+            int level = compressed.level();
+            String blockId = compressed.blockId();
+            
             // Create the compressed item to drop
             ItemStack dropItem = createCompressedItem(blockId, level);
             
-            // Remove the marker and related display entities
-            removeCompressionEntities(world, pos);
+            // Forget the compression data and remove the display entities
+            CompressedBlockStorage.remove(serverWorld, pos);
+            DisplayRegistry.get(serverWorld).discard(pos);
+            OverlayMerger.onRemoved(serverWorld, pos);
             
             // Remove the block without normal drops
             world.removeBlock(pos, false);
@@ -179,7 +187,7 @@ public class CompressyBlockHandler {
             
             if (player instanceof ServerPlayerEntity serverPlayer) {
                 serverPlayer.sendMessage(
-                    Text.literal("Retrieved compressed block (Tier " + toRoman(level) + ")")
+                    Text.literal("Retrieved compressed block (Tier " + CompressedItemText.toRoman(level) + ")")
                         .formatted(Formatting.GREEN),
                     true
                 );
@@ -192,104 +200,167 @@ public class CompressyBlockHandler {
             return false; // Cancel normal block break (we handled it)
         });
         
-        // CompressyMod.LOGGER.info("Compressed block handler registered (ACTUAL BLOCKS + marker entities)");
+        // Migrate INTERACTION markers from older versions into chunk data
+        ServerEntityEvents.ENTITY_LOAD.register((entity, world) -> {
+            if (entity instanceof InteractionEntity marker && marker.getCommandTags().contains(MARKER_TAG)) {
+                migrateLegacyMarker(marker, world);
+            }
+        });
+        
+        // CompressyMod.LOGGER.info("Compressed block handler registered (ACTUAL BLOCKS + chunk data)");
     }
     
     /**
-     * Create marker entities at a compressed block position
+     * Move the compression data of a legacy INTERACTION marker into chunk data,
+     * then remove the marker. Label and overlay entities are kept as-is.
      */
-    private static void createCompressionMarker(ServerWorld world, BlockPos pos, String blockId, int level) {
-        double x = pos.getX() + 0.5;
-        double y = pos.getY();
-        double z = pos.getZ() + 0.5;
+    private static void migrateLegacyMarker(InteractionEntity marker, ServerWorld world) {
+        BlockPos pos = marker.getBlockPos();
+        int level = 1;
+        String blockId = net.minecraft.registry.Registries.BLOCK.getId(world.getBlockState(pos).getBlock()).toString();
         
-        // 1. INTERACTION ENTITY - stores data, invisible, at block center
-        var marker = EntityType.INTERACTION.create(world, SpawnReason.COMMAND);
-        if (marker != null) {
-            marker.setPosition(x, y, z);
-            marker.setInteractionWidth(0.98f);
-            marker.setInteractionHeight(0.98f);
-            marker.addCommandTag(MARKER_TAG);
-            marker.addCommandTag("compressy.pos." + pos.getX() + "_" + pos.getY() + "_" + pos.getZ());
-            marker.addCommandTag("compressy.level." + level);
-            marker.addCommandTag("compressy.block." + blockId.replace(":", "."));
-            // No custom name - prevents flash on removal
-            world.spawnEntity(marker);
+        // Parse position, level and block ID from command tags
+        for (String tag : marker.getCommandTags()) {
+            if (tag.startsWith("compressy.pos.")) {
+                String[] parts = tag.substring("compressy.pos.".length()).split("_");
+                if (parts.length == 3) {
+                    try {
+                        pos = new BlockPos(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+                    } catch (NumberFormatException e) {
+                        // Use entity position
+                    }
+                }
+            } else if (tag.startsWith("compressy.level.")) {
+                try {
+                    level = Integer.parseInt(tag.substring("compressy.level.".length()));
+                } catch (NumberFormatException e) {
+                    // Use default
+                }
+            } else if (tag.startsWith("compressy.block.")) {
+                // Convert back from tag format (dots) to ID format (colon)
+                String tagBlockId = tag.substring("compressy.block.".length());
+                int firstDot = tagBlockId.indexOf('.');
+                if (firstDot > 0) {
+                    blockId = tagBlockId.substring(0, firstDot) + ":" + tagBlockId.substring(firstDot + 1);
+                }
+            }
         }
         
-        // 2. TEXT_DISPLAY - shows Roman numeral tier above the block (if enabled in config)
-        if (com.compressy.config.CompressyConfig.get().showRomanNumerals) {
-            var textDisplay = EntityType.TEXT_DISPLAY.create(world, SpawnReason.COMMAND);
-            if (textDisplay != null) {
-                textDisplay.setPosition(x, y + 1.0, z);
-                
-                String roman = toRoman(level);
-                int color = getTierColor(level);
-                
-                ((DisplayEntity.TextDisplayEntity) textDisplay).setText(
-                    Text.literal(" " + roman + " ")
-                        .styled(s -> s.withColor(color).withBold(true))
-                );
-                
-                textDisplay.setBillboardMode(DisplayEntity.BillboardMode.CENTER);
-                textDisplay.addCommandTag(MARKER_TAG);
-                textDisplay.addCommandTag(LABEL_TAG);
-                textDisplay.addCommandTag("compressy.pos." + pos.getX() + "_" + pos.getY() + "_" + pos.getZ());
-                
-                world.spawnEntity(textDisplay);
-            }
+        if (CompressedBlockStorage.get(world, pos) == null) {
+            CompressedBlockStorage.put(world, pos, new CompressedBlock(blockId, level));
         }
         
-        // 3. BLOCK_DISPLAY OVERLAY - darkening tint based on compression level (if enabled)
-        // Scale LARGER (1.01x) so overlay is visible on top of the block
-        if (level > 1 && com.compressy.config.CompressyConfig.get().showDarkeningOverlay) {
-            var overlay = EntityType.BLOCK_DISPLAY.create(world, SpawnReason.COMMAND);
-            if (overlay != null) {
-                // Scale factor - slightly larger so overlay is visible on block faces
-                float scale = 1.01f;
-                // Offset to center the scaled block (-0.005 on each axis for 1.01 scale)
-                double offset = (1.0 - scale) / 2.0;
-                
-                overlay.setPosition(
-                    pos.getX() + offset,
-                    pos.getY() + offset,
-                    pos.getZ() + offset
-                );
-                
-                // Use tinted glass - darker colors for higher levels
-                BlockState overlayState = getOverlayBlock(level);
-                ((DisplayEntity.BlockDisplayEntity) overlay).setBlockState(overlayState);
-                
-                // Set transformation for scale
-                // The transformation is applied via the entity's properties
-                org.joml.Matrix4f transform = new org.joml.Matrix4f();
-                transform.scale(scale);
-                ((DisplayEntity.BlockDisplayEntity) overlay).setTransformation(
-                    new net.minecraft.util.math.AffineTransformation(
-                        new org.joml.Vector3f(0, 0, 0),  // translation
-                        null,  // left rotation
-                        new org.joml.Vector3f(scale, scale, scale),  // scale
-                        null   // right rotation
-                    )
-                );
-                
-                // Reduce brightness for darker effect at higher levels
-                int brightness = Math.max(0, 15 - (level / 3));
-                overlay.setBrightness(new net.minecraft.entity.decoration.Brightness(brightness, brightness));
-                
-                overlay.addCommandTag(MARKER_TAG);
-                overlay.addCommandTag(OVERLAY_TAG);
-                overlay.addCommandTag("compressy.pos." + pos.getX() + "_" + pos.getY() + "_" + pos.getZ());
-                
-                world.spawnEntity(overlay);
+        // Discard on the next task run - not while the entity is still being loaded
+        world.getServer().execute(marker::discard);
+    }
+    
+    /**
+     * Record a compressed block and create its display entities
+     */
+    private static void createCompressionMarker(ServerWorld world, BlockPos pos, String blockId, int level, java.util.UUID owner) {
+        // 1. CHUNK DATA - stores compression data, saved with the chunk (no entity needed)
+        CompressedBlockStorage.put(world, pos, new CompressedBlock(blockId, level, owner));
+        
+        // 2. + 3. Label and overlay - only if they can be seen, spawned within the
+        //         per-tick visual budget and the display caps (see DisplayVisibility, DisplayBudget)
+        com.compressy.config.CompressyConfig config = com.compressy.config.CompressyConfig.get();
+        if (config.isClientRendered()) {
+            return;
+        }
+        DisplayVisibility.queue(world, pos);
+        
+        // Merged overlays are one per box of same-tier blocks in this chunk section
+        if (level > 1 && config.showDarkeningOverlay && config.mergeOverlays) {
+            DisplayVisibility.queueOverlay(world, pos);
+        }
+    }
+    
+    /**
+     * Spawn the TEXT_DISPLAY that shows the Roman numeral tier above a block.
+     * 
+     * @param owner The player who placed the block (may be null)
+     */
+    public static void spawnLabel(ServerWorld world, BlockPos pos, int level, java.util.UUID owner) {
+        var textDisplay = EntityType.TEXT_DISPLAY.create(world, SpawnReason.COMMAND);
+        if (textDisplay != null) {
+            textDisplay.setPosition(pos.getX() + 0.5, pos.getY() + 1.0, pos.getZ() + 0.5);
+            
+            textDisplay.setText(CompressedItemText.getLabel(level));
+            
+            textDisplay.setBillboardMode(DisplayEntity.BillboardMode.CENTER);
+            textDisplay.addCommandTag(MARKER_TAG);
+            textDisplay.addCommandTag(LABEL_TAG);
+            textDisplay.addCommandTag(DisplayRegistry.positionTag(pos));
+            if (owner != null) {
+                textDisplay.addCommandTag(DisplayRegistry.ownerTag(owner));
+            }
+            
+            world.spawnEntity(textDisplay);
+        }
+    }
+    
+    /**
+     * Spawn the BLOCK_DISPLAY darkening overlay of a single block.
+     */
+    public static void spawnBlockOverlay(ServerWorld world, BlockPos pos, int level, java.util.UUID owner) {
+        var overlay = spawnOverlay(world, pos, 1, 1, 1, level);
+        if (overlay != null) {
+            overlay.addCommandTag(DisplayRegistry.positionTag(pos));
+            if (owner != null) {
+                overlay.addCommandTag(DisplayRegistry.ownerTag(owner));
             }
+            world.spawnEntity(overlay);
+        }
+    }
+    
+    /**
+     * Create (without spawning) a darkening overlay covering a box of blocks.
+     * 
+     * @param origin The lowest corner block of the box
+     */
+    public static DisplayEntity.BlockDisplayEntity spawnOverlay(ServerWorld world, BlockPos origin,
+                                                                int sizeX, int sizeY, int sizeZ, int level) {
+        var overlay = EntityType.BLOCK_DISPLAY.create(world, SpawnReason.COMMAND);
+        if (overlay == null) {
+            return null;
         }
+        // Scale LARGER (+0.01) so overlay is visible on top of the block faces
+        float grow = 0.01f;
+        // Offset to center the scaled box (-0.005 on each axis)
+        double offset = -grow / 2.0;
+        
+        overlay.setPosition(
+            origin.getX() + offset,
+            origin.getY() + offset,
+            origin.getZ() + offset
+        );
+        
+        // Use tinted glass - darker colors for higher levels
+        overlay.setBlockState(getOverlayBlock(level));
+        
+        // Set transformation for scale (non-uniform for merged boxes)
+        overlay.setTransformation(
+            new net.minecraft.util.math.AffineTransformation(
+                new org.joml.Vector3f(0, 0, 0),  // translation
+                null,  // left rotation
+                new org.joml.Vector3f(sizeX + grow, sizeY + grow, sizeZ + grow),  // scale
+                null   // right rotation
+            )
+        );
+        
+        // Reduce brightness for darker effect at higher levels
+        int brightness = Math.max(0, 15 - (level / 3));
+        overlay.setBrightness(new net.minecraft.entity.decoration.Brightness(brightness, brightness));
+        
+        overlay.addCommandTag(MARKER_TAG);
+        overlay.addCommandTag(OVERLAY_TAG);
+        return overlay;
     }
     
     /**
      * Get the overlay block based on compression level (progressively darker)
      */
-    private static BlockState getOverlayBlock(int level) {
+    public static BlockState getOverlayBlock(int level) {
         // Use progressively darker tinted glass
         if (level <= 5) {
             return Blocks.LIGHT_GRAY_STAINED_GLASS.getDefaultState();
@@ -303,203 +374,23 @@ public class CompressyBlockHandler {
         }
     }
     
-    /**
-     * Remove all compression-related entities at a position
-     */
-    private static void removeCompressionEntities(World world, BlockPos pos) {
-        // Use position tag for EXACT matching - no ambiguity with neighbors
-        String posTag = "compressy.pos." + pos.getX() + "_" + pos.getY() + "_" + pos.getZ();
-        
-        // Expand search to catch all nearby entities with our tags
-        Box searchBox = new Box(pos).expand(1.5);
-        
-        List<Entity> entities = world.getEntitiesByClass(
-            Entity.class,
-            searchBox,
-            e -> e.getCommandTags().contains(posTag)
-        );
-        
-        // Remove all entities tagged with this exact position
-        for (Entity entity : entities) {
-            entity.discard();
-        }
-    }
-    
     /**
      * Create a compressed item from stored data
      * blockId should be a BLOCK ID (not item ID) for consistency
      */
     private static ItemStack createCompressedItem(String blockId, int level) {
-        // Try to get block first (blockId should be a block ID)
-        var block = net.minecraft.registry.Registries.BLOCK.get(Identifier.of(blockId));
-        net.minecraft.item.Item item;
-        if (block != null && block != Blocks.AIR) {
-            // Get item from block - this is the correct way
-            item = block.asItem();
-            if (item == null || item == net.minecraft.item.Items.AIR) {
-                // Fallback: try to get item directly (might be item ID in old saves)
-                item = net.minecraft.registry.Registries.ITEM.get(Identifier.of(blockId));
-            }
-        } else {
-            // Fallback: try to get item directly (might be item ID in old saves)
-            item = net.minecraft.registry.Registries.ITEM.get(Identifier.of(blockId));
-        }
-        
-        if (item == null || item == net.minecraft.item.Items.AIR) {
-            // CompressyMod.LOGGER.error("createCompressedItem: Could not resolve blockId {} to any item", blockId);
-            // Last resort: use stone
-            item = net.minecraft.item.Items.STONE;
-        }
-        
-        ItemStack stack = new ItemStack(item, 1);
-        
-        // Set the compression data
-        NbtCompound customData = new NbtCompound();
-        customData.putInt("compressed_level", level);
-        customData.putString("compressed_block", blockId);
-        stack.set(DataComponentTypes.CUSTOM_DATA, 
-            net.minecraft.component.type.NbtComponent.of(customData));
-        
-        // Set name
-        String roman = toRoman(level);
-        String displayName = formatBlockName(blockId);
-        int color = getTierColor(level);
-        
-        stack.set(DataComponentTypes.CUSTOM_NAME,
-            Text.literal(getTierSymbol(level) + " ")
-                .styled(s -> s.withColor(color).withItalic(false))
-                .append(Text.literal(displayName)
-                    .styled(s -> s.withColor(color).withItalic(false).withBold(true)))
-                .append(Text.literal(" " + roman)
-                    .styled(s -> s.withColor(getContrastColor(level)).withItalic(false).withBold(true))));
-        
-        // Set lore
-        String blockCount = calculateBlockCountString(level);
-        java.util.List<Text> lore = new java.util.ArrayList<>();
-        lore.add(Text.literal(getTierBar(level)).styled(s -> s.withColor(color).withItalic(false)));
-        lore.add(Text.empty());
-        lore.add(Text.literal("⬥ Tier: ").styled(s -> s.withColor(Formatting.GRAY).withItalic(false))
-            .append(Text.literal(roman).styled(s -> s.withColor(color).withBold(true).withItalic(false))));
-        lore.add(Text.literal("⬥ Contains: ").styled(s -> s.withColor(Formatting.GRAY).withItalic(false))
-            .append(Text.literal(blockCount + " blocks").styled(s -> s.withColor(Formatting.WHITE).withItalic(false))));
-        lore.add(Text.empty());
-        lore.add(Text.literal("▸ ").styled(s -> s.withColor(Formatting.DARK_GRAY).withItalic(false))
-            .append(Text.literal("3×3 craft to compress more").styled(s -> s.withColor(Formatting.GREEN).withItalic(false))));
-        lore.add(Text.literal("▸ ").styled(s -> s.withColor(Formatting.DARK_GRAY).withItalic(false))
-            .append(Text.literal("Craft alone to decompress").styled(s -> s.withColor(Formatting.AQUA).withItalic(false))));
-        
-        stack.set(DataComponentTypes.LORE, 
-            new net.minecraft.component.type.LoreComponent(lore));
-        
-        // Glint for high levels
-        if (level >= 5) {
-            stack.set(DataComponentTypes.ENCHANTMENT_GLINT_OVERRIDE, true);
-        }
-        
-        return stack;
+        // Same canonical stack as crafting produces (last resort: stone)
+        return CompressedStacks.create(blockId, level, 1, net.minecraft.item.Items.STONE);
     }
     
     // === Helper Methods ===
     
     private static int getCompressionLevel(ItemStack stack) {
-        var customData = stack.get(DataComponentTypes.CUSTOM_DATA);
-        if (customData == null) return 0;
-        var nbt = customData.copyNbt();
-        return com.compressy.util.NbtHelper.getInt(nbt, "compressed_level", 0);
+        return CompressionComponent.getLevel(stack);
     }
     
     private static String getCompressedBlockId(ItemStack stack) {
-        var customData = stack.get(DataComponentTypes.CUSTOM_DATA);
-        if (customData == null) return "";
-        var nbt = customData.copyNbt();
-        return com.compressy.util.NbtHelper.getString(nbt, "compressed_block", "");
-    }
-    
-    private static String toRoman(int num) {
-        if (num <= 0 || num > 40) return String.valueOf(num);
-        String[] tens = {"", "X", "XX", "XXX", "XL"};
-        String[] ones = {"", "I", "II", "III", "IV", "V", "VI", "VII", "VIII", "IX"};
-        return tens[num / 10] + ones[num % 10];
-    }
-    
-    private static int getTierColor(int level) {
-        if (level <= 3) return 0x55FFFF;   // Aqua
-        if (level <= 6) return 0x55FF55;   // Green
-        if (level <= 10) return 0xFFFF55;  // Yellow
-        if (level <= 15) return 0xFFAA00;  // Orange
-        if (level <= 20) return 0xFF5555;  // Red
-        if (level <= 25) return 0xFF55FF;  // Pink
-        if (level <= 30) return 0xAA00AA;  // Purple
-        return 0xFFD700;                    // Gold
-    }
-    
-    private static int getContrastColor(int level) {
-        // For readability of Roman numerals on darker blocks
-        if (level <= 10) return 0x1A1A1A;   // Dark on light backgrounds
-        if (level <= 20) return 0xFFFFFF;   // White on medium
-        if (level <= 30) return 0xFFFF55;   // Yellow on dark
-        return 0x000000;                     // Black on gold
-    }
-    
-    private static int getContrastBackgroundColor(int level) {
-        // Background color for text display
-        if (level <= 10) return 0x40000000;  // Semi-transparent dark
-        if (level <= 20) return 0x40FFFFFF;  // Semi-transparent light
-        return 0x80000000;                    // More opaque dark
-    }
-    
-    private static String getTierSymbol(int level) {
-        if (level <= 3) return "◇";
-        if (level <= 6) return "◆";
-        if (level <= 10) return "★";
-        if (level <= 15) return "✦";
-        if (level <= 20) return "✧";
-        if (level <= 25) return "❖";
-        if (level <= 30) return "✴";
-        return "☆";
-    }
-    
-    private static String getTierBar(int level) {
-        int filled = Math.min(level, 32);
-        int segments = 16;
-        int filledSegments = (filled * segments) / 32;
-        int emptySegments = segments - filledSegments;
-        return "▓".repeat(filledSegments) + "░".repeat(emptySegments);
-    }
-    
-    private static String formatBlockName(String blockId) {
-        String name = blockId;
-        if (name.contains(":")) {
-            name = name.substring(name.indexOf(':') + 1);
-        }
-        String[] words = name.split("_");
-        StringBuilder result = new StringBuilder();
-        for (String word : words) {
-            if (!word.isEmpty()) {
-                result.append(Character.toUpperCase(word.charAt(0)))
-                      .append(word.substring(1))
-                      .append(" ");
-            }
-        }
-        return result.toString().trim();
-    }
-    
-    private static String calculateBlockCountString(int level) {
-        return switch (level) {
-            case 1 -> "9";
-            case 2 -> "81";
-            case 3 -> "729";
-            case 4 -> "6,561";
-            case 5 -> "59,049";
-            case 6 -> "531,441";
-            case 7 -> "4.78M";
-            case 8 -> "43M";
-            case 9 -> "387M";
-            case 10 -> "3.49B";
-            default -> level <= 15 ? "Trillions+" :
-                       level <= 20 ? "Quadrillions+" :
-                       "Astronomical";
-        };
+        return CompressionComponent.getBlockId(stack);
     }
 }
 
@@ -1,7 +1,8 @@
 package com.compressy;
 
+import com.compressy.component.CompressionComponent;
+
 import net.fabricmc.fabric.api.event.player.UseBlockCallback;
-import net.minecraft.component.DataComponentTypes;
 import net.minecraft.item.ItemStack;
 import net.minecraft.text.Text;
 import net.minecraft.util.ActionResult;
@@ -59,10 +60,7 @@ public class CompressyBlockHandlerLite {
     }
     
     private static int getCompressionLevel(ItemStack stack) {
-        var customData = stack.get(DataComponentTypes.CUSTOM_DATA);
-        if (customData == null) return 0;
-        var nbt = customData.copyNbt();
-        return com.compressy.util.NbtHelper.getInt(nbt, "compressed_level", 0);
+        return CompressionComponent.getLevel(stack);
     }
 }
 
@@ -1,28 +1,67 @@
 package com.compressy;
 
+import java.util.UUID;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.compressy.block.CompressorBlock;
+import com.compressy.block.CompressorBlockEntity;
+import com.compressy.component.CompressionComponent;
+import com.compressy.item.CompressedItemText;
+import com.compressy.item.InventoryCompression;
+import com.compressy.network.DisplayPreferences;
 import com.compressy.recipe.CompressionRecipe;
 import com.compressy.recipe.CompressionRecipeSerializer;
 import com.compressy.recipe.DecompressionRecipe;
 import com.compressy.recipe.DecompressionRecipeSerializer;
+import com.compressy.world.CompressedBlockIndex;
+import com.compressy.world.CompressedChunkData;
+import com.compressy.world.DisplayBudget;
+import com.compressy.world.DisplayRegistry;
+import com.compressy.world.DisplayVisibility;
 import com.mojang.brigadier.Command;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.brigadier.context.CommandContext;
 
 import net.fabricmc.api.ModInitializer;
+import net.fabricmc.fabric.api.attachment.v1.AttachmentRegistry;
+import net.fabricmc.fabric.api.attachment.v1.AttachmentType;
 import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.fabricmc.fabric.api.itemgroup.v1.ItemGroupEvents;
+import net.fabricmc.fabric.api.object.builder.v1.block.entity.FabricBlockEntityTypeBuilder;
+import net.minecraft.block.AbstractBlock;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.ChestBlock;
+import net.minecraft.block.DoubleBlockProperties;
+import net.minecraft.block.MapColor;
+import net.minecraft.block.entity.BlockEntityType;
+import net.minecraft.block.entity.LockableContainerBlockEntity;
+import net.minecraft.command.argument.BlockPosArgumentType;
+import net.minecraft.entity.player.PlayerInventory;
+import net.minecraft.inventory.Inventory;
+import net.minecraft.item.BlockItem;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemGroups;
+import net.minecraft.component.ComponentType;
 import net.minecraft.recipe.RecipeSerializer;
 import net.minecraft.registry.Registries;
 import net.minecraft.registry.Registry;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.registry.RegistryKeys;
+import net.minecraft.registry.tag.TagKey;
 import net.minecraft.server.command.CommandManager;
 import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.sound.BlockSoundGroup;
 import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
 import net.minecraft.util.Identifier;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
 
 /**
  * Compressy - Compress ANY block up to 32 times!
@@ -46,7 +85,7 @@ import net.minecraft.util.Identifier;
  * FULL VERSION:
  * - Compressed blocks CAN be placed in world
  * - Visual overlays show compression tier (Roman numerals + darkening effect)
- * - Uses marker entities to preserve compression data
+ * - Compression data is saved in the chunk itself (no marker entities)
  * - Breaking returns the compressed block with all data intact
  * - Best for: Creative builds, visual storage displays
  * 
@@ -72,6 +111,76 @@ public class CompressyMod implements ModInitializer {
     public static final RecipeSerializer<DecompressionRecipe> DECOMPRESSION_RECIPE_SERIALIZER = 
         new DecompressionRecipeSerializer();
     
+    // Item component holding the compression data (block + tier) of a compressed stack
+    public static final ComponentType<CompressionComponent> COMPRESSION_COMPONENT = Registry.register(
+        Registries.DATA_COMPONENT_TYPE,
+        Identifier.of(MOD_ID, "compression"),
+        ComponentType.<CompressionComponent>builder()
+            .codec(CompressionComponent.CODEC)
+            .packetCodec(CompressionComponent.PACKET_CODEC)
+            .build()
+    );
+    
+    // Placed compressed blocks (FULL mode) - saved and loaded with each chunk,
+    // synced to tracking players in "client" render mode (labels are drawn client-side)
+    public static final AttachmentType<CompressedChunkData> COMPRESSED_BLOCKS = AttachmentRegistry.create(
+        Identifier.of(MOD_ID, "compressed_blocks"),
+        builder -> builder
+            .persistent(CompressedChunkData.CODEC)
+            .initializer(CompressedChunkData::new)
+            .syncWith(CompressedChunkData.PACKET_CODEC,
+                (chunk, player) -> com.compressy.config.CompressyConfig.get().isClientRendered())
+    );
+    
+    // Per-world lookup index over loaded chunks (in-memory only, rebuilt on chunk load)
+    public static final AttachmentType<CompressedBlockIndex> COMPRESSED_INDEX = AttachmentRegistry.create(
+        Identifier.of(MOD_ID, "compressed_index")
+    );
+    
+    // Per-world registry of loaded label/overlay entities (in-memory only, rebuilt as entities load)
+    public static final AttachmentType<DisplayRegistry> DISPLAY_REGISTRY = AttachmentRegistry.create(
+        Identifier.of(MOD_ID, "display_registry")
+    );
+    
+    // What each player's client wants to see (in-memory only, sent by modded clients on join)
+    public static final AttachmentType<DisplayPreferences> DISPLAY_PREFERENCES = AttachmentRegistry.create(
+        Identifier.of(MOD_ID, "display_preferences"),
+        builder -> builder.copyOnDeath()
+    );
+    
+    // Blocks that are commonly compressed (data/compressy/tags/block/compressible.json)
+    public static final TagKey<Block> COMPRESSIBLE_TAG = TagKey.of(
+        RegistryKeys.BLOCK,
+        Identifier.of(MOD_ID, "compressible")
+    );
+    
+    // Compressor block - a container that compresses its contents (see CompressorBlockEntity)
+    public static final Block COMPRESSOR_BLOCK = Registry.register(
+        Registries.BLOCK,
+        Identifier.of(MOD_ID, "compressor"),
+        new CompressorBlock(AbstractBlock.Settings.create()
+            .registryKey(RegistryKey.of(RegistryKeys.BLOCK, Identifier.of(MOD_ID, "compressor")))
+            .mapColor(MapColor.IRON_GRAY)
+            .strength(3.5f)
+            .requiresTool()
+            .sounds(BlockSoundGroup.METAL))
+    );
+    
+    public static final Item COMPRESSOR_ITEM = Registry.register(
+        Registries.ITEM,
+        Identifier.of(MOD_ID, "compressor"),
+        new BlockItem(COMPRESSOR_BLOCK, new Item.Settings()
+            .registryKey(RegistryKey.of(RegistryKeys.ITEM, Identifier.of(MOD_ID, "compressor")))
+            .useBlockPrefixedTranslationKey())
+    );
+    
+    public static final BlockEntityType<CompressorBlockEntity> COMPRESSOR_BLOCK_ENTITY = Registry.register(
+        Registries.BLOCK_ENTITY_TYPE,
+        Identifier.of(MOD_ID, "compressor"),
+        FabricBlockEntityTypeBuilder.create(CompressorBlockEntity::new, COMPRESSOR_BLOCK)
+            .build()
+    );
+    
     /**
      * Detect if we're running in LITE mode.
      * Checks manifest attribute or system property.
@@ -118,6 +227,8 @@ public class CompressyMod implements ModInitializer {
         
         // Load configuration
         com.compressy.config.CompressyConfig.load();
+        com.compressy.config.CompressionRules.register();
+        com.compressy.config.ConfigWatcher.start();
         // LOGGER.info("Configuration loaded!");
         
         // Register custom recipe types
@@ -126,6 +237,9 @@ public class CompressyMod implements ModInitializer {
         // LOGGER.info("Compression recipes registered!");
         // LOGGER.info("Decompression: Using direct mixin interception (bypasses broken recipe matching)");
         
+        com.compressy.item.CompressedStackCache.register();
+        com.compressy.recipe.DecompressionTable.register();
+        
         // Register block placement handler based on mode
         if (LITE_MODE) {
             // LITE: Just prevent placement entirely
@@ -141,6 +255,14 @@ public class CompressyMod implements ModInitializer {
         // LOGGER.info("Registering commands...");
 
         registerCommands();
+        
+        // Per-player visual preferences sent by modded clients
+        DisplayPreferences.register();
+        
+        // Compressor block: hopper/pipe access through the Transfer API + creative tab entry
+        CompressorBlockEntity.register();
+        ItemGroupEvents.modifyEntriesEvent(ItemGroups.FUNCTIONAL)
+            .register(entries -> entries.add(COMPRESSOR_ITEM));
 
         // LOGGER.info("Commands registered! Use /cblocks help");
         LOGGER.info("===========================================");
@@ -188,11 +310,28 @@ public class CompressyMod implements ModInitializer {
             cblocks.then(CommandManager.literal("info")
                     .executes(this::showBlockInfo));
 
-            // /cblocks decompress [amount] - Decompress held block
+            // /cblocks decompress [amount] [tier] - Decompress held blocks (default: one tier down)
             cblocks.then(CommandManager.literal("decompress")
-                    .executes(ctx -> decompress(ctx, 1))
+                    .executes(ctx -> decompress(ctx, 1, -1))
                     .then(CommandManager.argument("amount", IntegerArgumentType.integer(1, 64))
-                            .executes(ctx -> decompress(ctx, IntegerArgumentType.getInteger(ctx, "amount")))));
+                            .executes(ctx -> decompress(ctx, IntegerArgumentType.getInteger(ctx, "amount"), -1))
+                            .then(CommandManager.argument("tier", IntegerArgumentType.integer(0, CompressionComponent.MAX_LEVEL - 1))
+                                    .executes(ctx -> decompress(ctx, IntegerArgumentType.getInteger(ctx, "amount"),
+                                            IntegerArgumentType.getInteger(ctx, "tier"))))));
+
+            // /cblocks compressall [maxTier] - Compress the whole inventory
+            // /cblocks compressall at <pos> [maxTier] - Compress a container in reach
+            cblocks.then(CommandManager.literal("compressall")
+                    .executes(ctx -> compressAll(ctx, null, CompressionComponent.MAX_LEVEL))
+                    .then(CommandManager.argument("maxTier", IntegerArgumentType.integer(1, CompressionComponent.MAX_LEVEL))
+                            .executes(ctx -> compressAll(ctx, null, IntegerArgumentType.getInteger(ctx, "maxTier"))))
+                    .then(CommandManager.literal("at")
+                            .then(CommandManager.argument("pos", BlockPosArgumentType.blockPos())
+                                    .executes(ctx -> compressAll(ctx, BlockPosArgumentType.getLoadedBlockPos(ctx, "pos"),
+                                            CompressionComponent.MAX_LEVEL))
+                                    .then(CommandManager.argument("maxTier", IntegerArgumentType.integer(1, CompressionComponent.MAX_LEVEL))
+                                            .executes(ctx -> compressAll(ctx, BlockPosArgumentType.getLoadedBlockPos(ctx, "pos"),
+                                                    IntegerArgumentType.getInteger(ctx, "maxTier")))))));
 
             // /cblocks admin subcommands (OP required)
             LiteralArgumentBuilder<ServerCommandSource> adminCommand = CommandManager.literal("admin")
@@ -208,6 +347,12 @@ public class CompressyMod implements ModInitializer {
                     .executes(this::showDebug));
             adminCommand.then(CommandManager.literal("reload")
                     .executes(this::reloadConfig));
+            adminCommand.then(CommandManager.literal("reconcile")
+                    .executes(this::showReconcileStatus));
+            adminCommand.then(CommandManager.literal("top")
+                    .executes(ctx -> showTopOffenders(ctx, 5))
+                    .then(CommandManager.argument("count", IntegerArgumentType.integer(1, 50))
+                            .executes(ctx -> showTopOffenders(ctx, IntegerArgumentType.getInteger(ctx, "count")))));
 
             cblocks.then(adminCommand);
 
@@ -257,6 +402,12 @@ public class CompressyMod implements ModInitializer {
         source.sendFeedback(() -> Text.literal("  /cblocks info")
                 .formatted(Formatting.GREEN)
                 .append(Text.literal(" - Info about held block").formatted(Formatting.GRAY)), false);
+        source.sendFeedback(() -> Text.literal("  /cblocks compressall [maxTier]")
+                .formatted(Formatting.GREEN)
+                .append(Text.literal(" - Compress your whole inventory").formatted(Formatting.GRAY)), false);
+        source.sendFeedback(() -> Text.literal("  /cblocks decompress [amount] [tier]")
+                .formatted(Formatting.GREEN)
+                .append(Text.literal(" - Unpack held blocks (tier 0 = original)").formatted(Formatting.GRAY)), false);
         source.sendFeedback(() -> Text.literal(""), false);
         source.sendFeedback(() -> Text.literal("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━")
                 .formatted(Formatting.GOLD), false);
@@ -277,26 +428,17 @@ public class CompressyMod implements ModInitializer {
                 return Command.SINGLE_SUCCESS;
             }
             
-            // Check if it's a compressed block by looking for custom data
-            var customData = heldItem.get(net.minecraft.component.DataComponentTypes.CUSTOM_DATA);
-            if (customData == null) {
-                source.sendFeedback(() -> Text.literal("[Compressy] ")
-                        .formatted(Formatting.GOLD)
-                        .append(Text.literal("This is not a compressed block.").formatted(Formatting.YELLOW)), false);
-                return Command.SINGLE_SUCCESS;
-            }
-            
-            var nbt = customData.copyNbt();
-            if (!nbt.contains("compressed_level")) {
+            // Check if it's a compressed block by looking for the compression component
+            CompressionComponent compression = CompressionComponent.get(heldItem);
+            if (compression == null) {
                 source.sendFeedback(() -> Text.literal("[Compressy] ")
                         .formatted(Formatting.GOLD)
                         .append(Text.literal("This is not a compressed block.").formatted(Formatting.YELLOW)), false);
                 return Command.SINGLE_SUCCESS;
             }
             
-            // Cross-version compatible NBT access
-            int level = com.compressy.util.NbtHelper.getInt(nbt, "compressed_level", 0);
-            String blockId = com.compressy.util.NbtHelper.getString(nbt, "compressed_block", "unknown");
+            int level = compression.level();
+            String blockId = compression.block();
             
             // Calculate total blocks (9^level)
             java.math.BigInteger totalBlocks = java.math.BigInteger.valueOf(9).pow(level);
@@ -321,12 +463,118 @@ public class CompressyMod implements ModInitializer {
         }
     }
 
-    private int decompress(CommandContext<ServerCommandSource> ctx, int amount) {
+    /**
+     * The container at a position as the player would open it: both halves of a double chest,
+     * or null if there is none or it is locked (the lock message is sent like vanilla's).
+     */
+    private static Inventory getContainer(ServerPlayerEntity player, BlockPos pos) {
+        World world = player.getEntityWorld();
+        BlockState state = world.getBlockState(pos);
+        if (!(world.getBlockEntity(pos) instanceof Inventory container)) {
+            return null;
+        }
+        if (container instanceof LockableContainerBlockEntity lockable && !lockable.checkUnlocked(player)) {
+            return null;
+        }
+        if (state.getBlock() instanceof ChestBlock chest) {
+            if (ChestBlock.getDoubleBlockType(state) != DoubleBlockProperties.Type.SINGLE
+                    && world.getBlockEntity(pos.offset(ChestBlock.getFacing(state))) instanceof LockableContainerBlockEntity other
+                    && !other.checkUnlocked(player)) {
+                return null;
+            }
+            return ChestBlock.getInventory(chest, state, world, pos, true);
+        }
+        return container;
+    }
+
+    /**
+     * Compress every compressible stack of the player's inventory (pos == null) or of a container.
+     */
+    private int compressAll(CommandContext<ServerCommandSource> ctx, BlockPos pos, int maxTier) {
         ServerCommandSource source = ctx.getSource();
+        ServerPlayerEntity player = source.getPlayer();
+        if (player == null) {
+            source.sendError(Text.literal("This command must be run by a player!"));
+            return 0;
+        }
+        
+        Inventory inventory;
+        int start;
+        int end;
+        if (pos == null) {
+            // Main inventory + hotbar only - never armor or offhand
+            inventory = player.getInventory();
+            start = 0;
+            end = PlayerInventory.MAIN_SIZE;
+        } else {
+            Inventory container = player.canInteractWithBlockAt(pos, 1.0)
+                ? getContainer(player, pos) : null;
+            if (container == null || !container.canPlayerUse(player)) {
+                source.sendError(Text.literal("[Compressy] No container you can use at that position"));
+                return 0;
+            }
+            inventory = container;
+            start = 0;
+            end = container.size();
+        }
+        
+        InventoryCompression.Result result = InventoryCompression.compressAll(inventory, start, end, maxTier);
+        if (!result.fits()) {
+            source.sendError(Text.literal("[Compressy] Not enough free slots for the compressed stacks - nothing changed"));
+            return 0;
+        }
+        if (result.types() == 0) {
+            source.sendFeedback(() -> Text.literal("[Compressy] ")
+                    .formatted(Formatting.GOLD)
+                    .append(Text.literal("Nothing to compress.").formatted(Formatting.YELLOW)), false);
+            return 0;
+        }
         source.sendFeedback(() -> Text.literal("[Compressy] ")
                 .formatted(Formatting.GOLD)
-                .append(Text.literal("Place a compressed block alone in a crafting grid to decompress!")
-                        .formatted(Formatting.YELLOW)), false);
+                .append(Text.literal("✓ Compressed " + result.types() + " block type(s): "
+                        + result.stacksBefore() + " → " + result.stacksAfter() + " stacks").formatted(Formatting.GREEN)), false);
+        return Command.SINGLE_SUCCESS;
+    }
+
+    /**
+     * Decompress held blocks to a lower tier (-1 = one tier down, 0 = the original block).
+     */
+    private int decompress(CommandContext<ServerCommandSource> ctx, int amount, int tier) {
+        ServerCommandSource source = ctx.getSource();
+        ServerPlayerEntity player = source.getPlayer();
+        if (player == null) {
+            source.sendError(Text.literal("This command must be run by a player!"));
+            return 0;
+        }
+        
+        int targetTier = tier >= 0 ? tier : CompressionComponent.getLevel(player.getMainHandStack()) - 1;
+        InventoryCompression.Decompression result = InventoryCompression.decompressHeld(player, amount, targetTier);
+        switch (result.status()) {
+            case NOT_COMPRESSED -> {
+                source.sendFeedback(() -> Text.literal("[Compressy] ")
+                        .formatted(Formatting.GOLD)
+                        .append(Text.literal("Hold a compressed block to decompress it!").formatted(Formatting.YELLOW)), false);
+                return 0;
+            }
+            case INVALID_TIER -> {
+                source.sendError(Text.literal("[Compressy] The target tier must be below the held block's tier"));
+                return 0;
+            }
+            case NO_ROOM -> {
+                source.sendError(Text.literal("[Compressy] Not enough room for the output (overflow: "
+                        + com.compressy.config.CompressyConfig.get().decompressOverflow + ") - nothing changed"));
+                return 0;
+            }
+            default -> {
+            }
+        }
+        
+        String target = targetTier == 0 ? "blocks" : "Tier " + CompressedItemText.toRoman(targetTier);
+        source.sendFeedback(() -> Text.literal("[Compressy] ")
+                .formatted(Formatting.GOLD)
+                .append(Text.literal("✓ Decompressed " + result.consumed() + " into " + formatBigNumber(java.math.BigInteger.valueOf(result.produced()))
+                        + " " + target + (result.overflowed() > 0 ? " (" + result.overflowed() + " overflowed)" : ""))
+                        .formatted(Formatting.GREEN)), false);
         return Command.SINGLE_SUCCESS;
     }
 
@@ -337,9 +585,89 @@ public class CompressyMod implements ModInitializer {
         source.sendFeedback(() -> Text.literal("Mod Version: 1.0.0").formatted(Formatting.GRAY), false);
         source.sendFeedback(() -> Text.literal("Status: Running").formatted(Formatting.GREEN), false);
         source.sendFeedback(() -> Text.literal("Max Compression: 32 levels").formatted(Formatting.AQUA), false);
+        source.sendFeedback(() -> Text.literal("Stack Cache: " + com.compressy.item.CompressedStackCache.size() + " entries, "
+                + com.compressy.item.CompressedStackCache.getHits() + " hits, "
+                + com.compressy.item.CompressedStackCache.getMisses() + " misses").formatted(Formatting.GRAY), false);
+        source.sendFeedback(() -> Text.literal("Decompression Table: " + com.compressy.recipe.DecompressionTable.size()
+                + " entries").formatted(Formatting.GRAY), false);
+        if (source.getWorld() != null) {
+            DisplayRegistry displays = DisplayRegistry.get(source.getWorld());
+            source.sendFeedback(() -> Text.literal("Loaded Displays: " + displays.size() + " blocks in "
+                    + displays.chunkCount() + " chunks, " + displays.boxCount() + " merged overlays").formatted(Formatting.GRAY), false);
+            int queued = DisplayVisibility.queued(source.getWorld());
+            source.sendFeedback(() -> Text.literal("Queued Visuals: " + queued).formatted(Formatting.GRAY), false);
+        }
         return Command.SINGLE_SUCCESS;
     }
 
+    private int showReconcileStatus(CommandContext<ServerCommandSource> ctx) {
+        ServerCommandSource source = ctx.getSource();
+        if (LITE_MODE) {
+            source.sendError(Text.literal("[Compressy] Nothing to reconcile in LITE mode (blocks can't be placed)"));
+            return 0;
+        }
+        com.compressy.world.Reconciler.Status status = com.compressy.world.Reconciler.getStatus(source.getWorld());
+        int budget = com.compressy.config.CompressyConfig.get().reconcileBudgetMicros;
+        
+        source.sendFeedback(() -> Text.literal("=== Compressy Reconciler (" + source.getWorld().getRegistryKey().getValue() + ") ===")
+                .formatted(Formatting.GOLD).formatted(Formatting.BOLD), false);
+        if (budget <= 0) {
+            source.sendFeedback(() -> Text.literal("Disabled (performance.reconcileBudgetMicros = 0)").formatted(Formatting.RED), false);
+        } else if (status.isResting()) {
+            source.sendFeedback(() -> Text.literal("Idle - " + status.passes + " pass(es) done, budget " + budget + " µs/tick")
+                    .formatted(Formatting.GREEN), false);
+        } else {
+            source.sendFeedback(() -> Text.literal("Pass " + (status.passes + 1) + ": chunk " + status.getChunkIndex() + " / "
+                    + status.getChunkCount() + ", budget " + budget + " µs/tick").formatted(Formatting.YELLOW), false);
+        }
+        source.sendFeedback(() -> Text.literal("Checked: " + status.chunksChecked + " chunks, " + status.blocksChecked + " blocks")
+                .formatted(Formatting.GRAY), false);
+        source.sendFeedback(() -> Text.literal("Removed: " + status.dataRemoved + " orphaned block data, "
+                + status.entitiesRemoved + " orphaned entities").formatted(Formatting.GRAY), false);
+        source.sendFeedback(() -> Text.literal("Repaired: " + status.repaired + " blocks with missing/hidden visuals")
+                .formatted(Formatting.GRAY), false);
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private int showTopOffenders(CommandContext<ServerCommandSource> ctx, int count) {
+        ServerCommandSource source = ctx.getSource();
+        if (LITE_MODE) {
+            source.sendError(Text.literal("[Compressy] No placed blocks in LITE mode"));
+            return 0;
+        }
+        com.compressy.config.CompressyConfig config = com.compressy.config.CompressyConfig.get();
+        DisplayRegistry displays = DisplayRegistry.get(source.getWorld());
+        
+        source.sendFeedback(() -> Text.literal("=== Compressy Display Usage (" + source.getWorld().getRegistryKey().getValue() + ") ===")
+                .formatted(Formatting.GOLD).formatted(Formatting.BOLD), false);
+        source.sendFeedback(() -> Text.literal("Dimension: " + displays.size() + " / " + formatCap(config.maxDisplaysPerDimension)
+                + " blocks with visuals, " + DisplayBudget.getSkipped() + " refused (all dimensions)")
+                .formatted(Formatting.GRAY), false);
+        
+        source.sendFeedback(() -> Text.literal("Top chunks (cap " + formatCap(config.maxDisplaysPerChunk) + "):").formatted(Formatting.YELLOW), false);
+        for (long chunkKey : DisplayBudget.topChunks(source.getWorld(), count)) {
+            int size = displays.chunkSize(chunkKey);
+            int blockX = ChunkPos.getPackedX(chunkKey) << 4;
+            int blockZ = ChunkPos.getPackedZ(chunkKey) << 4;
+            source.sendFeedback(() -> Text.literal("  " + size + " at block " + blockX + ", " + blockZ).formatted(Formatting.GRAY), false);
+        }
+        
+        source.sendFeedback(() -> Text.literal("Top players (cap " + formatCap(config.maxDisplaysPerPlayer) + "):").formatted(Formatting.YELLOW), false);
+        for (var entry : DisplayBudget.topPlayers(count)) {
+            UUID owner = entry.getKey();
+            var online = source.getServer().getPlayerManager().getPlayer(owner);
+            String name = online != null ? online.getName().getString() : owner.toString();
+            int refused = DisplayBudget.getPlayerSkipped(owner);
+            source.sendFeedback(() -> Text.literal("  " + name + ": " + entry.getIntValue()
+                    + (refused > 0 ? " (" + refused + " refused)" : "")).formatted(Formatting.GRAY), false);
+        }
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private static String formatCap(int cap) {
+        return cap <= 0 ? "none" : String.valueOf(cap);
+    }
+
     private int reloadConfig(CommandContext<ServerCommandSource> ctx) {
         ServerCommandSource source = ctx.getSource();
         try {
@@ -0,0 +1,56 @@
+package com.compressy.block;
+
+import com.compressy.CompressyMod;
+import com.mojang.serialization.MapCodec;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.block.BlockWithEntity;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.block.entity.BlockEntityTicker;
+import net.minecraft.block.entity.BlockEntityType;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.util.ActionResult;
+import net.minecraft.util.hit.BlockHitResult;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+/**
+ * The Compressor: a container that compresses whatever is put into it.
+ *
+ * Opens like a chest; hoppers, pipes and other mods insert and extract through
+ * the Fabric Transfer API. The work itself happens in {@link CompressorBlockEntity}.
+ */
+public class CompressorBlock extends BlockWithEntity {
+
+    public static final MapCodec<CompressorBlock> CODEC = createCodec(CompressorBlock::new);
+
+    public CompressorBlock(Settings settings) {
+        super(settings);
+    }
+
+    @Override
+    protected MapCodec<? extends BlockWithEntity> getCodec() {
+        return CODEC;
+    }
+
+    @Override
+    public BlockEntity createBlockEntity(BlockPos pos, BlockState state) {
+        return new CompressorBlockEntity(pos, state);
+    }
+
+    /**
+     * Compression runs on the server only - clients just see the synced screen.
+     */
+    @Override
+    public <T extends BlockEntity> BlockEntityTicker<T> getTicker(World world, BlockState state, BlockEntityType<T> type) {
+        return world.isClient() ? null : validateTicker(type, CompressyMod.COMPRESSOR_BLOCK_ENTITY, CompressorBlockEntity::tick);
+    }
+
+    @Override
+    protected ActionResult onUse(BlockState state, World world, BlockPos pos, PlayerEntity player, BlockHitResult hit) {
+        if (!world.isClient() && world.getBlockEntity(pos) instanceof CompressorBlockEntity compressor) {
+            player.openHandledScreen(compressor);
+        }
+        return ActionResult.SUCCESS;
+    }
+}
@@ -0,0 +1,245 @@
+package com.compressy.block;
+
+import com.compressy.CompressyMod;
+import com.compressy.component.CompressionComponent;
+import com.compressy.config.CompressyConfig;
+import com.compressy.item.CompressedStacks;
+import com.compressy.item.InventoryCompression;
+
+import net.fabricmc.fabric.api.transfer.v1.item.InventoryStorage;
+import net.fabricmc.fabric.api.transfer.v1.item.ItemStorage;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.entity.LockableContainerBlockEntity;
+import net.minecraft.entity.player.PlayerInventory;
+import net.minecraft.inventory.Inventories;
+import net.minecraft.item.ItemStack;
+import net.minecraft.screen.GenericContainerScreenHandler;
+import net.minecraft.screen.ScreenHandler;
+import net.minecraft.storage.ReadView;
+import net.minecraft.storage.WriteView;
+import net.minecraft.text.Text;
+import net.minecraft.util.collection.DefaultedList;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+/**
+ * The Compressor's contents: 27 slots that are merged into higher tiers in place.
+ *
+ * WHY:
+ * Compressing a farm's output meant crafting 9 -> 1 by hand, tier after tier.
+ * The Compressor does it as items arrive, so it can sit between a farm and storage.
+ *
+ * HOW IT WORKS:
+ * - Any 9 of the same stack type (plain block or tier N) merge into one of tier N+1, following
+ *   the same rules as CompressionRecipe (exclusions, max tier 32 - see InventoryCompression#getBlockId)
+ * - At most {@code crafting.compressorOpsPerTick} merges per tick - the rest waits for the next tick
+ * - A merge only happens if its output fits (counting the slots its inputs empty), so nothing is lost
+ * - The compressor SLEEPS once a tick finds nothing to merge, and wakes on markDirty - which every
+ *   insert and extract calls (hoppers, Transfer API, players). A sleeping compressor costs one check per tick.
+ * - A tick that merged anything wakes the next one (the new tier may merge again)
+ *
+ * Other blocks reach the slots through {@link ItemStorage#SIDED} (all 27 slots, from every side).
+ */
+public class CompressorBlockEntity extends LockableContainerBlockEntity {
+
+    public static final int SIZE = 27;
+
+    private DefaultedList<ItemStack> inventory = DefaultedList.ofSize(SIZE, ItemStack.EMPTY);
+
+    // Nothing to merge until the contents change (not saved - a loaded compressor checks once)
+    private boolean idle;
+
+    public CompressorBlockEntity(BlockPos pos, BlockState state) {
+        super(CompressyMod.COMPRESSOR_BLOCK_ENTITY, pos, state);
+    }
+
+    /**
+     * Expose the slots to hoppers, pipes and other mods.
+     */
+    public static void register() {
+        ItemStorage.SIDED.registerForBlockEntity(
+            (compressor, side) -> InventoryStorage.of(compressor, side),
+            CompressyMod.COMPRESSOR_BLOCK_ENTITY);
+    }
+
+    /**
+     * Server tick: merge what the budget allows, then sleep until the contents change.
+     */
+    public static void tick(World world, BlockPos pos, BlockState state, CompressorBlockEntity compressor) {
+        if (compressor.idle) {
+            return;
+        }
+        compressor.idle = true;
+        if (compressor.compress(CompressyConfig.get().compressorOpsPerTick) > 0) {
+            // Saves the chunk and wakes the next tick
+            compressor.markDirty();
+        }
+    }
+
+    @Override
+    public void markDirty() {
+        idle = false;
+        super.markDirty();
+    }
+
+    /**
+     * Merge up to budget times (9 -> 1), one stack type at a time.
+     *
+     * @return Merges performed
+     */
+    private int compress(int budget) {
+        int merged = 0;
+        boolean[] grouped = new boolean[SIZE];
+        int[] group = new int[SIZE];
+
+        for (int i = 0; i < SIZE && merged < budget; i++) {
+            ItemStack first = inventory.get(i);
+            if (grouped[i] || first.isEmpty()) {
+                continue;
+            }
+
+            // Every slot holding the same stack type
+            int groupSize = 0;
+            int total = 0;
+            for (int j = i; j < SIZE; j++) {
+                ItemStack stack = inventory.get(j);
+                if (!grouped[j] && ItemStack.areItemsAndComponentsEqual(stack, first)) {
+                    grouped[j] = true;
+                    group[groupSize++] = j;
+                    total += stack.getCount();
+                }
+            }
+            if (total < 9) {
+                continue;
+            }
+
+            String blockId = InventoryCompression.getBlockId(first);
+            CompressionComponent data = CompressionComponent.get(first);
+            int tier = data == null ? 0 : data.level();
+            if (blockId == null || tier >= CompressionComponent.MAX_LEVEL) {
+                continue;
+            }
+
+            ItemStack output = CompressedStacks.create(blockId, tier + 1, 1, first.getItem());
+            merged += merge(group, groupSize, output, Math.min(total / 9, budget - merged));
+        }
+        return merged;
+    }
+
+    /**
+     * Take crafts x 9 from the group's slots (last slot first) and add crafts outputs.
+     * Fewer merges are done if the output would not fit.
+     *
+     * @return Merges performed
+     */
+    private int merge(int[] group, int groupSize, ItemStack output, int crafts) {
+        int maxCount = getMaxCount(output);
+
+        // Room depends on the slots the inputs free up - shrink until it fits
+        int room;
+        while (crafts > 0 && (room = room(group, groupSize, output, crafts, maxCount)) < crafts) {
+            crafts = room;
+        }
+        if (crafts <= 0) {
+            return 0;
+        }
+
+        int toTake = crafts * 9;
+        for (int k = groupSize - 1; k >= 0 && toTake > 0; k--) {
+            ItemStack stack = inventory.get(group[k]);
+            int take = Math.min(toTake, stack.getCount());
+            stack.decrement(take);
+            toTake -= take;
+            if (stack.isEmpty()) {
+                inventory.set(group[k], ItemStack.EMPTY);
+            }
+        }
+
+        // Top up existing output stacks first, then fill empty slots
+        int toAdd = crafts;
+        for (int slot = 0; slot < SIZE && toAdd > 0; slot++) {
+            ItemStack stack = inventory.get(slot);
+            if (!stack.isEmpty() && ItemStack.areItemsAndComponentsEqual(stack, output)) {
+                int add = Math.min(toAdd, maxCount - stack.getCount());
+                if (add > 0) {
+                    stack.increment(add);
+                    toAdd -= add;
+                }
+            }
+        }
+        for (int slot = 0; slot < SIZE && toAdd > 0; slot++) {
+            if (inventory.get(slot).isEmpty()) {
+                int add = Math.min(toAdd, maxCount);
+                inventory.set(slot, output.copyWithCount(add));
+                toAdd -= add;
+            }
+        }
+        return crafts;
+    }
+
+    /**
+     * Output room once crafts x 9 inputs are taken from the group (last slot first).
+     */
+    private int room(int[] group, int groupSize, ItemStack output, int crafts, int maxCount) {
+        boolean[] freed = new boolean[SIZE];
+        int toTake = crafts * 9;
+        for (int k = groupSize - 1; k >= 0 && toTake > 0; k--) {
+            int count = inventory.get(group[k]).getCount();
+            freed[group[k]] = toTake >= count;
+            toTake -= Math.min(toTake, count);
+        }
+
+        int room = 0;
+        for (int slot = 0; slot < SIZE; slot++) {
+            ItemStack stack = inventory.get(slot);
+            if (stack.isEmpty() || freed[slot]) {
+                room += maxCount;
+            } else if (ItemStack.areItemsAndComponentsEqual(stack, output)) {
+                room += Math.max(0, maxCount - stack.getCount());
+            }
+        }
+        return room;
+    }
+
+    // === Container ===
+
+    @Override
+    public int size() {
+        return SIZE;
+    }
+
+    @Override
+    protected Text getContainerName() {
+        return Text.translatable("container.compressy.compressor");
+    }
+
+    @Override
+    protected DefaultedList<ItemStack> getHeldStacks() {
+        return inventory;
+    }
+
+    @Override
+    protected void setHeldStacks(DefaultedList<ItemStack> inventory) {
+        this.inventory = inventory;
+        this.idle = false;
+    }
+
+    @Override
+    protected ScreenHandler createScreenHandler(int syncId, PlayerInventory playerInventory) {
+        return GenericContainerScreenHandler.createGeneric9x3(syncId, playerInventory, this);
+    }
+
+    @Override
+    protected void readData(ReadView view) {
+        super.readData(view);
+        inventory = DefaultedList.ofSize(size(), ItemStack.EMPTY);
+        Inventories.readData(view, inventory);
+        idle = false;
+    }
+
+    @Override
+    protected void writeData(WriteView view) {
+        super.writeData(view);
+        Inventories.writeData(view, inventory);
+    }
+}
@@ -0,0 +1,201 @@
+package com.compressy.client;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.compressy.CompressyMod;
+import com.compressy.world.CompressedBlock;
+import com.compressy.world.CompressedChunkData;
+
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntMaps;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientChunkEvents;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
+
+/**
+ * Client-side copy of the synced compressed block positions, readable from chunk mesh threads.
+ *
+ * WHY:
+ * Chunk sections are meshed on worker threads, which must not read the chunk attachments
+ * the client thread is replacing. And a section only picks up a new tint when it is re-meshed.
+ *
+ * HOW IT WORKS:
+ * - Synced chunk data arrives as a NEW {@link CompressedChunkData} instance each time,
+ *   set on its chunk by the attachment sync
+ * - Each chunk is published as it loads, and again whenever a synced copy is set on it
+ *   (the chunk's attachment-set event, registered on load) - nothing is polled
+ * - A changed chunk is copied into an immutable pos -> level map and published
+ * - Sections whose compressed blocks changed are scheduled for re-meshing
+ *
+ * MESH TINT FALLBACK:
+ * Renderers that replace chunk meshing (Sodium and the like) never run {@code SectionBuilderMixin}.
+ * That is detected (known mods, or sections meshed without the hook ever running) and logged once;
+ * {@link TierLabelRenderer} then draws the glass overlays the "entities" render mode would spawn.
+ */
+public class ClientCompressedBlocks {
+
+    // Chunk key -> (packed pos -> level); inner maps are never modified after publishing
+    private static final Map<Long, Long2IntMap> CHUNKS = new ConcurrentHashMap<>();
+    // Chunk key -> the synced instance the copy was made from (client thread only)
+    private static final Map<Long, CompressedChunkData> SOURCES = new HashMap<>();
+
+    // Mods known to replace vanilla chunk meshing
+    private static final String[] MESHING_MODS = { "sodium", "embeddium", "nvidium" };
+    // Sections meshed without our hook before it counts as missing
+    private static final int MESHED_SECTIONS_BEFORE_CHECK = 16;
+
+    // Set by SectionBuilderMixin whenever it runs (mesh worker threads)
+    private static volatile boolean meshHookSeen;
+    private static boolean meshTintChecked;
+    private static boolean meshTintActive = true;
+
+    public static void register() {
+        for (String mod : MESHING_MODS) {
+            if (FabricLoader.getInstance().isModLoaded(mod)) {
+                disableMeshTint("'" + mod + "' replaces chunk meshing");
+                break;
+            }
+        }
+
+        ClientTickEvents.END_CLIENT_TICK.register(ClientCompressedBlocks::tick);
+        ClientChunkEvents.CHUNK_LOAD.register((world, chunk) -> {
+            long key = chunk.getPos().toLong();
+            // Later syncs of this chunk (the listener goes away with the chunk object)
+            chunk.onAttachedSet(CompressyMod.COMPRESSED_BLOCKS).register((oldValue, newValue) ->
+                publish(MinecraftClient.getInstance(), key, newValue));
+            publish(MinecraftClient.getInstance(), key, chunk.getAttached(CompressyMod.COMPRESSED_BLOCKS));
+        });
+        ClientChunkEvents.CHUNK_UNLOAD.register((world, chunk) -> {
+            long key = chunk.getPos().toLong();
+            SOURCES.remove(key);
+            CHUNKS.remove(key);
+        });
+    }
+
+    /**
+     * Called by {@code SectionBuilderMixin} for every block it meshes (any thread).
+     */
+    public static void onMeshed() {
+        if (!meshHookSeen) {
+            meshHookSeen = true;
+        }
+    }
+
+    /**
+     * Whether the tier darkening is baked into chunk meshes (false: draw overlays instead).
+     */
+    public static boolean isMeshTintActive() {
+        return meshTintActive;
+    }
+
+    /**
+     * Get the compression level at a position, or 0 if it is not compressed (any thread).
+     */
+    public static int getLevel(BlockPos pos) {
+        Long2IntMap chunk = CHUNKS.get(ChunkPos.toLong(pos.getX() >> 4, pos.getZ() >> 4));
+        return chunk == null ? 0 : chunk.get(pos.asLong());
+    }
+
+    /**
+     * Colour multiplier for a tier - progressively darker, like the old glass overlays.
+     */
+    public static float getTint(int level) {
+        return 1.0f - 0.55f * (MathHelper.clamp(level, 1, 32) - 1) / 31.0f;
+    }
+
+    /**
+     * Re-mesh every section that has compressed blocks (e.g., after the tint setting changed).
+     */
+    public static void rebuildAll() {
+        MinecraftClient client = MinecraftClient.getInstance();
+        for (Long2IntMap chunk : CHUNKS.values()) {
+            scheduleRebuild(client, chunk);
+        }
+    }
+
+    private static void tick(MinecraftClient client) {
+        ClientWorld world = client.world;
+        if (world == null) {
+            if (!SOURCES.isEmpty()) {
+                SOURCES.clear();
+                CHUNKS.clear();
+            }
+            return;
+        }
+        checkMeshTint(client);
+    }
+
+    /**
+     * Sections were meshed but the mesh hook never ran: another renderer builds the chunk meshes.
+     */
+    private static void checkMeshTint(MinecraftClient client) {
+        if (meshTintChecked || client.worldRenderer == null) {
+            return;
+        }
+        if (meshHookSeen) {
+            meshTintChecked = true;
+        } else if (client.worldRenderer.getCompletedChunkCount() >= MESHED_SECTIONS_BEFORE_CHECK) {
+            disableMeshTint("chunk sections are meshed without the compressy hook");
+        }
+    }
+
+    private static void disableMeshTint(String reason) {
+        meshTintChecked = true;
+        meshTintActive = false;
+        CompressyMod.LOGGER.warn("Compressy: tier tint can't be baked into chunk meshes ({}) - drawing overlays instead", reason);
+    }
+
+    private static void publish(MinecraftClient client, long key, CompressedChunkData data) {
+        if (data == SOURCES.get(key)) {
+            return; // Already published
+        }
+        Long2IntMap previous;
+        if (data == null || data.isEmpty()) {
+            SOURCES.remove(key);
+            previous = CHUNKS.remove(key);
+        } else {
+            Long2IntOpenHashMap levels = new Long2IntOpenHashMap(data.size());
+            for (Long2ObjectMap.Entry<CompressedBlock> entry : data.entries()) {
+                levels.put(entry.getLongKey(), entry.getValue().level());
+            }
+            SOURCES.put(key, data);
+            Long2IntMap current = Long2IntMaps.unmodifiable(levels);
+            previous = CHUNKS.put(key, current);
+            scheduleRebuild(client, current);
+        }
+        if (previous != null) {
+            scheduleRebuild(client, previous);
+        }
+    }
+
+    /**
+     * Re-mesh the sections that contain the given positions (once per section).
+     */
+    private static void scheduleRebuild(MinecraftClient client, Long2IntMap positions) {
+        if (client.worldRenderer == null || positions.isEmpty()) {
+            return;
+        }
+        long any = positions.keySet().iterator().nextLong();
+        int minX = BlockPos.unpackLongX(any) & ~15;
+        int minZ = BlockPos.unpackLongZ(any) & ~15;
+
+        IntOpenHashSet sectionsY = new IntOpenHashSet();
+        for (long pos : positions.keySet()) {
+            sectionsY.add(BlockPos.unpackLongY(pos) >> 4);
+        }
+        for (int sectionY : sectionsY) {
+            int minY = sectionY << 4;
+            client.worldRenderer.scheduleBlockRenders(minX, minY, minZ, minX + 15, minY + 15, minZ + 15);
+        }
+    }
+}
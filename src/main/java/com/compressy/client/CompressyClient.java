@@ -0,0 +1,63 @@
+package com.compressy.client;
+
+import com.compressy.CompressyMod;
+import com.compressy.component.CompressionComponent;
+import com.compressy.config.CompressyConfig;
+import com.compressy.item.CompressedItemText;
+import com.compressy.network.DisplayPreferences;
+
+import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.item.v1.ItemTooltipCallback;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.component.DataComponentTypes;
+
+/**
+ * Client-side entrypoint for Compressy.
+ * 
+ * Adds the compressed tier lore (bar, tier, block count, flavor text) to tooltips.
+ * The lore is generated from the stack's compression data instead of being stored on it.
+ * 
+ * Also draws the tier labels of placed compressed blocks ({@link TierLabelRenderer})
+ * and tints them in the chunk mesh ({@link ClientCompressedBlocks}).
+ */
+public class CompressyClient implements ClientModInitializer {
+    
+    @Override
+    public void onInitializeClient() {
+        ItemTooltipCallback.EVENT.register((stack, context, type, lines) -> {
+            CompressionComponent data = stack.get(CompressyMod.COMPRESSION_COMPONENT);
+            // Stacks with baked lore (server-side fallback) already show it
+            if (data == null || stack.contains(DataComponentTypes.LORE)) {
+                return;
+            }
+            // Right under the name line, where vanilla puts lore
+            lines.addAll(Math.min(1, lines.size()), CompressedItemText.getLore(data));
+        });
+        
+        TierLabelRenderer.register();
+        ClientCompressedBlocks.register();
+        
+        // Tell the server which label/overlay entities to send us
+        ClientPlayConnectionEvents.JOIN.register((handler, sender, client) -> sendDisplayPreferences());
+        
+        // Resend the preferences on every change; the tint is baked into chunk meshes,
+        // so re-mesh when it is switched on or off
+        boolean[] tinted = { CompressyConfig.get().showDarkeningOverlay };
+        CompressyConfig.onChange(config -> {
+            MinecraftClient.getInstance().execute(CompressyClient::sendDisplayPreferences);
+            if (config.showDarkeningOverlay != tinted[0]) {
+                tinted[0] = config.showDarkeningOverlay;
+                MinecraftClient.getInstance().execute(ClientCompressedBlocks::rebuildAll);
+            }
+        });
+    }
+    
+    private static void sendDisplayPreferences() {
+        if (ClientPlayNetworking.canSend(DisplayPreferences.ID)) {
+            CompressyConfig config = CompressyConfig.get();
+            ClientPlayNetworking.send(new DisplayPreferences(config.showRomanNumerals, config.showDarkeningOverlay));
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.compressy.client;
+
+import java.util.Arrays;
+
+import com.compressy.CompressyBlockHandler;
+import com.compressy.CompressyMod;
+import com.compressy.component.CompressionComponent;
+import com.compressy.config.CompressyConfig;
+import com.compressy.item.CompressedItemText;
+import com.compressy.world.CompressedBlock;
+import com.compressy.world.CompressedChunkData;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import net.fabricmc.fabric.api.client.rendering.v1.world.WorldRenderContext;
+import net.fabricmc.fabric.api.client.rendering.v1.world.WorldRenderEvents;
+import net.fabricmc.fabric.api.resource.v1.ResourceLoader;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.font.TextRenderer;
+import net.minecraft.client.render.Camera;
+import net.minecraft.client.render.LightmapTextureManager;
+import net.minecraft.client.render.OverlayTexture;
+import net.minecraft.client.render.VertexConsumerProvider;
+import net.minecraft.client.render.WorldRenderer;
+import net.minecraft.client.render.block.BlockRenderManager;
+import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.resource.ResourceType;
+import net.minecraft.resource.SynchronousResourceReloader;
+import net.minecraft.text.OrderedText;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.chunk.WorldChunk;
+
+/**
+ * Draws the tier labels of placed compressed blocks without any entities.
+ *
+ * WHY:
+ * One TEXT_DISPLAY entity per placed block meant one tracked, synced and separately
+ * rendered entity per block - thousands of them in dense builds.
+ *
+ * HOW IT WORKS:
+ * - The server syncs each chunk's {@link CompressedChunkData} (position + tier) to modded clients
+ * - Once per frame, the chunks around the camera are walked for compressed blocks
+ * - Labels past MAX_DISTANCE or outside the view cone are skipped (distance + frustum culling)
+ * - The text of each tier is built ONCE (its OrderedText and width are cached per tier);
+ *   the glyphs themselves are still emitted by the TextRenderer for every label
+ * - The cache is cleared on every client resource reload (fonts and resource packs change widths)
+ * - All labels go into the same vertex consumers, so they are drawn in one batch
+ *
+ * When the tint cannot be baked into chunk meshes (see {@link ClientCompressedBlocks#isMeshTintActive}),
+ * the same pass also draws each block's glass overlay, as the "entities" render mode would.
+ *
+ * Only active in "client" render mode - in "entities" mode the server sends no chunk data.
+ */
+public class TierLabelRenderer {
+
+    // Same distance a TEXT_DISPLAY label was visible from (view range 1.0 = 64 blocks)
+    private static final int MAX_DISTANCE = 64;
+    private static final float TEXT_SCALE = 0.025f;
+    private static final int BACKGROUND_COLOR = 0x40000000;
+    // Same slightly larger box as the overlay entities, so it sits on top of the block faces
+    private static final float OVERLAY_GROW = 0.01f;
+
+    // Label text and centering offset per tier (index = level)
+    private static final OrderedText[] LABELS = new OrderedText[CompressionComponent.MAX_LEVEL + 1];
+    private static final float[] LABEL_OFFSETS = new float[CompressionComponent.MAX_LEVEL + 1];
+
+    public static void register() {
+        WorldRenderEvents.AFTER_ENTITIES.register(TierLabelRenderer::render);
+        ResourceLoader.get(ResourceType.CLIENT_RESOURCES).registerReloader(
+            Identifier.of(CompressyMod.MOD_ID, "tier_labels"),
+            (SynchronousResourceReloader) manager -> clearLabels());
+    }
+
+    /**
+     * Forget the cached label text and widths (the font may have changed).
+     */
+    private static void clearLabels() {
+        Arrays.fill(LABELS, null);
+        Arrays.fill(LABEL_OFFSETS, 0.0f);
+    }
+
+    private static void render(WorldRenderContext context) {
+        CompressyConfig config = CompressyConfig.get();
+        boolean labels = config.showRomanNumerals;
+        boolean overlays = config.showDarkeningOverlay && !ClientCompressedBlocks.isMeshTintActive();
+        if (!labels && !overlays) {
+            return;
+        }
+        MinecraftClient client = MinecraftClient.getInstance();
+        ClientWorld world = client.world;
+        if (world == null) {
+            return;
+        }
+
+        Camera camera = client.gameRenderer.getCamera();
+        Vec3d cameraPos = camera.getCameraPos();
+        Vec3d look = Vec3d.fromPolar(camera.getPitch(), camera.getYaw());
+        double minCos = getViewConeCos(client);
+
+        MatrixStack matrices = context.matrices();
+        VertexConsumerProvider consumers = context.consumers();
+        TextRenderer textRenderer = client.textRenderer;
+        BlockRenderManager blockRenderer = client.getBlockRenderManager();
+        BlockPos.Mutable lightPos = new BlockPos.Mutable();
+
+        int chunkRadius = (MAX_DISTANCE >> 4) + 1;
+        int cameraChunkX = MathHelper.floor(cameraPos.x) >> 4;
+        int cameraChunkZ = MathHelper.floor(cameraPos.z) >> 4;
+        double maxDistanceSq = (double) MAX_DISTANCE * MAX_DISTANCE;
+
+        for (int chunkX = cameraChunkX - chunkRadius; chunkX <= cameraChunkX + chunkRadius; chunkX++) {
+            for (int chunkZ = cameraChunkZ - chunkRadius; chunkZ <= cameraChunkZ + chunkRadius; chunkZ++) {
+                WorldChunk chunk = world.getChunkManager().getWorldChunk(chunkX, chunkZ);
+                if (chunk == null) {
+                    continue;
+                }
+                CompressedChunkData data = chunk.getAttached(CompressyMod.COMPRESSED_BLOCKS);
+                if (data == null || data.isEmpty()) {
+                    continue;
+                }
+
+                for (Long2ObjectMap.Entry<CompressedBlock> entry : data.entries()) {
+                    long pos = entry.getLongKey();
+                    // Label anchor: centered, one block above the block (where the entity used to be)
+                    double dx = BlockPos.unpackLongX(pos) + 0.5 - cameraPos.x;
+                    double dy = BlockPos.unpackLongY(pos) + 1.25 - cameraPos.y;
+                    double dz = BlockPos.unpackLongZ(pos) + 0.5 - cameraPos.z;
+
+                    double distanceSq = dx * dx + dy * dy + dz * dz;
+                    if (distanceSq > maxDistanceSq) {
+                        continue;
+                    }
+                    // View cone test - with one block of slack so labels at the edge don't pop
+                    double along = dx * look.x + dy * look.y + dz * look.z;
+                    if (along < Math.sqrt(distanceSq) * minCos - 1.0) {
+                        continue;
+                    }
+
+                    int level = MathHelper.clamp(entry.getValue().level(), 1, CompressionComponent.MAX_LEVEL);
+                    if (overlays && level > 1) {
+                        renderOverlay(blockRenderer, matrices, consumers, dx - 0.5, dy - 1.25, dz - 0.5, level);
+                    }
+                    if (!labels) {
+                        continue;
+                    }
+                    lightPos.set(BlockPos.unpackLongX(pos), BlockPos.unpackLongY(pos) + 1, BlockPos.unpackLongZ(pos));
+                    int light = WorldRenderer.getLightmapCoordinates(world, lightPos);
+
+                    matrices.push();
+                    matrices.translate(dx, dy, dz);
+                    matrices.multiply(camera.getRotation());
+                    matrices.scale(TEXT_SCALE, -TEXT_SCALE, TEXT_SCALE);
+                    textRenderer.draw(getLabel(textRenderer, level), getLabelOffset(level), 0, 0xFFFFFFFF, false,
+                        matrices.peek().getPositionMatrix(), consumers, TextRenderer.TextLayerType.NORMAL,
+                        BACKGROUND_COLOR, light);
+                    matrices.pop();
+                }
+            }
+        }
+    }
+
+    /**
+     * Draw the glass overlay of one block, like the overlay entity of the "entities" render mode.
+     */
+    private static void renderOverlay(BlockRenderManager blockRenderer, MatrixStack matrices,
+                                      VertexConsumerProvider consumers, double x, double y, double z, int level) {
+        int brightness = Math.max(0, 15 - (level / 3));
+        matrices.push();
+        matrices.translate(x - OVERLAY_GROW / 2.0, y - OVERLAY_GROW / 2.0, z - OVERLAY_GROW / 2.0);
+        matrices.scale(1.0f + OVERLAY_GROW, 1.0f + OVERLAY_GROW, 1.0f + OVERLAY_GROW);
+        blockRenderer.renderBlockAsEntity(CompressyBlockHandler.getOverlayBlock(level), matrices, consumers,
+            LightmapTextureManager.pack(brightness, brightness), OverlayTexture.DEFAULT_UV);
+        matrices.pop();
+    }
+
+    /**
+     * Cosine of the angle between the view direction and the corner of the screen.
+     */
+    private static double getViewConeCos(MinecraftClient client) {
+        double halfFov = Math.toRadians(client.options.getFov().getValue()) / 2.0;
+        double aspect = (double) client.getWindow().getFramebufferWidth()
+            / Math.max(1, client.getWindow().getFramebufferHeight());
+        double tanHalfDiagonal = Math.tan(halfFov) * Math.sqrt(1.0 + aspect * aspect);
+        return Math.cos(Math.atan(tanHalfDiagonal));
+    }
+
+    private static OrderedText getLabel(TextRenderer textRenderer, int level) {
+        OrderedText label = LABELS[level];
+        if (label == null) {
+            label = CompressedItemText.getLabel(level).asOrderedText();
+            LABEL_OFFSETS[level] = -textRenderer.getWidth(label) / 2.0f;
+            LABELS[level] = label;
+        }
+        return label;
+    }
+
+    private static float getLabelOffset(int level) {
+        return LABEL_OFFSETS[level];
+    }
+}
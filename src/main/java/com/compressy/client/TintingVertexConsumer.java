@@ -0,0 +1,73 @@
+package com.compressy.client;
+
+import net.minecraft.client.render.VertexConsumer;
+import net.minecraft.client.render.model.BakedQuad;
+import net.minecraft.client.util.math.MatrixStack;
+
+/**
+ * Passes vertices through, multiplying their colour by a fixed factor.
+ *
+ * Used while meshing a compressed block, so its tier darkening is baked into the
+ * chunk mesh instead of being drawn by a translucent overlay every frame.
+ *
+ * Whole quads are forwarded with their colour multiplier scaled, so the wrapped
+ * consumer keeps its bulk-quad fast path.
+ */
+public class TintingVertexConsumer implements VertexConsumer {
+
+    private final VertexConsumer delegate;
+    private final float factor;
+
+    public TintingVertexConsumer(VertexConsumer delegate, float factor) {
+        this.delegate = delegate;
+        this.factor = factor;
+    }
+
+    @Override
+    public VertexConsumer vertex(float x, float y, float z) {
+        delegate.vertex(x, y, z);
+        return this;
+    }
+
+    @Override
+    public VertexConsumer color(int red, int green, int blue, int alpha) {
+        delegate.color((int) (red * factor), (int) (green * factor), (int) (blue * factor), alpha);
+        return this;
+    }
+
+    @Override
+    public VertexConsumer texture(float u, float v) {
+        delegate.texture(u, v);
+        return this;
+    }
+
+    @Override
+    public VertexConsumer overlay(int u, int v) {
+        delegate.overlay(u, v);
+        return this;
+    }
+
+    @Override
+    public VertexConsumer light(int u, int v) {
+        delegate.light(u, v);
+        return this;
+    }
+
+    @Override
+    public VertexConsumer normal(float x, float y, float z) {
+        delegate.normal(x, y, z);
+        return this;
+    }
+
+    @Override
+    public void quad(MatrixStack.Entry matrixEntry, BakedQuad quad, float red, float green, float blue, float alpha,
+                     int light, int overlay) {
+        delegate.quad(matrixEntry, quad, red * factor, green * factor, blue * factor, alpha, light, overlay);
+    }
+
+    @Override
+    public void quad(MatrixStack.Entry matrixEntry, BakedQuad quad, float[] brightnesses, float red, float green,
+                     float blue, float alpha, int[] lights, int overlay) {
+        delegate.quad(matrixEntry, quad, brightnesses, red * factor, green * factor, blue * factor, alpha, lights, overlay);
+    }
+}
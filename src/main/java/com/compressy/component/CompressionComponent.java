@@ -0,0 +1,133 @@
+package com.compressy.component;
+
+import com.compressy.CompressyMod;
+import com.compressy.util.NbtHelper;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+
+import io.netty.buffer.ByteBuf;
+import net.minecraft.component.DataComponentTypes;
+import net.minecraft.component.type.NbtComponent;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.network.codec.PacketCodec;
+import net.minecraft.network.codec.PacketCodecs;
+import net.minecraft.registry.Registries;
+
+/**
+ * The {@code compressy:compression} item component.
+ *
+ * Holds everything that makes a stack "compressed": the original block and the tier.
+ * Reading it is a plain field access - no NBT copy like the old CUSTOM_DATA format.
+ *
+ * LEGACY STACKS:
+ * Older versions stored the same data as {@code compressed_level} / {@code compressed_block}
+ * inside CUSTOM_DATA. {@link #get(ItemStack)} reads such stacks without changing them - a read
+ * never writes to a stack (it may be a shared prototype, a client copy or the middle of a
+ * comparison). They are migrated once, by {@link #upgrade(ItemStack)}, when the normalizer
+ * runs as a player opens a screen (see {@code CompressedStacks#normalize}).
+ *
+ * @param block The original BLOCK ID (e.g., "minecraft:cobblestone")
+ * @param level The compression tier (1-32)
+ */
+public record CompressionComponent(String block, int level) {
+
+    public static final int MAX_LEVEL = 32;
+
+    public static final Codec<CompressionComponent> CODEC = RecordCodecBuilder.create(instance -> instance.group(
+        Codec.STRING.fieldOf("block").forGetter(CompressionComponent::block),
+        Codec.intRange(1, MAX_LEVEL).fieldOf("level").forGetter(CompressionComponent::level)
+    ).apply(instance, CompressionComponent::new));
+
+    public static final PacketCodec<ByteBuf, CompressionComponent> PACKET_CODEC = PacketCodec.tuple(
+        PacketCodecs.STRING, CompressionComponent::block,
+        PacketCodecs.VAR_INT, CompressionComponent::level,
+        CompressionComponent::new
+    );
+
+    // Legacy CUSTOM_DATA keys
+    private static final String LEGACY_LEVEL_KEY = "compressed_level";
+    private static final String LEGACY_BLOCK_KEY = "compressed_block";
+
+    /**
+     * Get the compression data of a stack (legacy CUSTOM_DATA stacks are read, not changed).
+     *
+     * @return The compression data, or null if the stack is not compressed
+     */
+    public static CompressionComponent get(ItemStack stack) {
+        if (stack.isEmpty()) {
+            return null;
+        }
+        CompressionComponent data = stack.get(CompressyMod.COMPRESSION_COMPONENT);
+        if (data != null) {
+            return data;
+        }
+        return readLegacy(stack);
+    }
+
+    /**
+     * Move legacy CUSTOM_DATA compression info into the component, in place.
+     *
+     * @return The compression data, or null if the stack is not compressed
+     */
+    public static CompressionComponent upgrade(ItemStack stack) {
+        CompressionComponent data = get(stack);
+        if (data == null || !isLegacy(stack)) {
+            return data;
+        }
+        stack.set(CompressyMod.COMPRESSION_COMPONENT, data);
+        NbtComponent.set(DataComponentTypes.CUSTOM_DATA, stack, legacy -> {
+            legacy.remove(LEGACY_LEVEL_KEY);
+            legacy.remove(LEGACY_BLOCK_KEY);
+        });
+        return data;
+    }
+
+    /**
+     * Get the compression level of a stack (0 if not compressed).
+     */
+    public static int getLevel(ItemStack stack) {
+        CompressionComponent data = get(stack);
+        return data == null ? 0 : data.level();
+    }
+
+    /**
+     * Get the original block ID of a compressed stack ("" if not compressed).
+     */
+    public static String getBlockId(ItemStack stack) {
+        CompressionComponent data = get(stack);
+        return data == null ? "" : data.block();
+    }
+
+    /**
+     * Check if a stack still stores its compression data in legacy CUSTOM_DATA.
+     */
+    public static boolean isLegacy(ItemStack stack) {
+        NbtComponent customData = stack.get(DataComponentTypes.CUSTOM_DATA);
+        return customData != null && customData.contains(LEGACY_LEVEL_KEY);
+    }
+
+    /**
+     * Read legacy CUSTOM_DATA compression info.
+     * Only legacy stacks pay for the NBT copy, until they are upgraded.
+     */
+    private static CompressionComponent readLegacy(ItemStack stack) {
+        NbtComponent customData = stack.get(DataComponentTypes.CUSTOM_DATA);
+        if (customData == null || !customData.contains(LEGACY_LEVEL_KEY)) {
+            return null;
+        }
+
+        NbtCompound nbt = customData.copyNbt();
+        int level = NbtHelper.getInt(nbt, LEGACY_LEVEL_KEY, 0);
+        if (level <= 0) {
+            return null;
+        }
+        String block = NbtHelper.getString(nbt, LEGACY_BLOCK_KEY, "");
+        if (block.isEmpty()) {
+            // Very old stacks had no block ID - the item ID is the best we have
+            block = Registries.ITEM.getId(stack.getItem()).toString();
+        }
+
+        return new CompressionComponent(block, Math.min(level, MAX_LEVEL));
+    }
+}
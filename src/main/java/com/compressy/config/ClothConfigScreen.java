@@ -20,8 +20,9 @@ public class ClothConfigScreen {
      * This method is called via reflection/try-catch to handle missing Cloth Config.
      */
     public static Screen create(Screen parent) {
-        // Get the current config instance - this will be modified by save consumers
+        // Read from the current snapshot, edit a copy - published as a whole on save
         CompressyConfig config = CompressyConfig.get();
+        CompressyConfig.Builder edited = config.toBuilder();
         
         ConfigBuilder builder = ConfigBuilder.create()
                 .setParentScreen(parent)
@@ -29,7 +30,8 @@ public class ClothConfigScreen {
         
         // Save and log when done
         builder.setSavingRunnable(() -> {
-            CompressyConfig.save();
+            // Caches built from the old snapshot drop themselves (CompressyConfig.onChange)
+            CompressyConfig.save(edited.build());
             CompressyMod.LOGGER.info("Config saved from ModMenu - values should now be active");
         });
         
@@ -120,16 +122,41 @@ public class ClothConfigScreen {
         }
         
         // === DISPLAY CATEGORY ===
-        // Only show display settings in FULL mode (LITE mode doesn't place blocks)
+        ConfigCategory display = builder.getOrCreateCategory(Text.literal("Display"));
+        
+        display.addEntry(entryBuilder.startBooleanToggle(
+                Text.literal("Server-Side Item Text"),
+                config.serverSideItemText)
+                .setDefaultValue(false)
+                .setTooltip(Text.literal("Store names and lore on compressed items so players WITHOUT the mod see them too.\n\nPlayers with the mod always see them - leave this off unless vanilla clients join."))
+                .setSaveConsumer(val -> edited.serverSideItemText = val)
+                .build());
+        
+        // Placed block settings only apply in FULL mode (LITE mode doesn't place blocks)
         if (!CompressyMod.LITE_MODE) {
-            ConfigCategory display = builder.getOrCreateCategory(Text.literal("Display"));
+            display.addEntry(entryBuilder.startSelector(
+                    Text.literal("Render Mode"),
+                    new String[] { CompressyConfig.RENDER_MODE_CLIENT, CompressyConfig.RENDER_MODE_ENTITIES },
+                    config.renderMode)
+                    .setDefaultValue(CompressyConfig.RENDER_MODE_ENTITIES)
+                    .setTooltip(Text.literal("client: Tier labels and darkening are drawn by the mod on each client - no entities at all. Players WITHOUT the mod see nothing.\n\nentities (default): Display entities per placed block, so players WITHOUT the mod see them too.\n\nOnly available in FULL mode."))
+                    .setSaveConsumer(val -> edited.renderMode = val)
+                    .build());
+            
+            display.addEntry(entryBuilder.startBooleanToggle(
+                    Text.literal("Merge Overlays"),
+                    config.mergeOverlays)
+                    .setDefaultValue(true)
+                    .setTooltip(Text.literal("Merge the darkening overlays of adjacent same-tier blocks into one display entity per box.\n\nA 16x16 wall becomes 1 entity instead of 256.\n\nOnly applies to the entities render mode."))
+                    .setSaveConsumer(val -> edited.mergeOverlays = val)
+                    .build());
             
             display.addEntry(entryBuilder.startBooleanToggle(
                     Text.literal("Show Roman Numerals"),
                     config.showRomanNumerals)
                     .setDefaultValue(true)
                     .setTooltip(Text.literal("Show tier labels (I, II, III...) above placed compressed blocks.\n\nOnly available in FULL mode."))
-                    .setSaveConsumer(val -> config.showRomanNumerals = val)
+                    .setSaveConsumer(val -> edited.showRomanNumerals = val)
                     .build());
             
             display.addEntry(entryBuilder.startBooleanToggle(
@@ -137,7 +164,7 @@ public class ClothConfigScreen {
                     config.showDarkeningOverlay)
                     .setDefaultValue(true)
                     .setTooltip(Text.literal("Show darkening effect on higher tier compressed blocks.\n\nHigher compression levels get progressively darker overlays for visual feedback.\n\nOnly available in FULL mode."))
-                    .setSaveConsumer(val -> config.showDarkeningOverlay = val)
+                    .setSaveConsumer(val -> edited.showDarkeningOverlay = val)
                     .build());
         }
         
@@ -150,7 +177,7 @@ public class ClothConfigScreen {
                 config.useAllowlist)
                 .setDefaultValue(false)
                 .setTooltip(Text.literal("Allowlist Mode: Only blocks in the allowlist can be compressed.\n\nExclusion Mode: All blocks can be compressed EXCEPT those in the exclusion list.\n\nDefault: Exclusion Mode (recommended for most users)"))
-                .setSaveConsumer(val -> config.useAllowlist = val)
+                .setSaveConsumer(val -> edited.useAllowlist = val)
                 .build());
         
         // Allowlist block list
@@ -158,15 +185,12 @@ public class ClothConfigScreen {
                 Text.literal("Allowed Blocks"),
                 config.allowedBlocks)
                 .setDefaultValue(new ArrayList<>())
-                .setTooltip(Text.literal("Blocks that CAN be compressed (when allowlist mode is enabled).\n\nTo add: Click the + button, then type a block ID in the input field.\nTo edit: Click on any entry to modify it.\nTo remove: Click the X button on an entry.\n\nFormat: namespace:blockname (e.g., minecraft:stone)"))
+                .setTooltip(Text.literal("Blocks that CAN be compressed (when allowlist mode is enabled).\n\nTo add: Click the + button, then type a block ID in the input field.\nTo edit: Click on any entry to modify it.\nTo remove: Click the X button on an entry.\n\nFormat: namespace:blockname (e.g., minecraft:stone),\na block tag (e.g., #minecraft:logs) or a glob (e.g., minecraft:*_planks)"))
                 .setInsertButtonEnabled(true)
                 .setDeleteButtonEnabled(true)
                 .setAddButtonTooltip(Text.literal("Click to add a new block ID.\nA text input will appear - type the block ID and press Enter."))
                 .setRemoveButtonTooltip(Text.literal("Click to remove this block from the allowlist"))
-                .setSaveConsumer(val -> {
-                    config.allowedBlocks.clear();
-                    config.allowedBlocks.addAll(val);
-                })
+                .setSaveConsumer(val -> edited.allowedBlocks = new ArrayList<>(val))
                 .build());
         
         // Default exclusions toggle (only shown when NOT in allowlist mode)
@@ -175,7 +199,16 @@ public class ClothConfigScreen {
                 config.useDefaultExclusions)
                 .setDefaultValue(true)
                 .setTooltip(Text.literal("Automatically exclude technical and non-solid blocks.\n\nIncludes: air, torches, rails, beds, doors, command blocks, etc.\n\nRecommended: Enabled (prevents compressing blocks that don't make sense)\n\nOnly applies when Allowlist Mode is disabled."))
-                .setSaveConsumer(val -> config.useDefaultExclusions = val)
+                .setSaveConsumer(val -> edited.useDefaultExclusions = val)
+                .build());
+        
+        // Compressible tag restriction (only shown when NOT in allowlist mode)
+        blocks.addEntry(entryBuilder.startBooleanToggle(
+                Text.literal("Restrict To Compressible Tag"),
+                config.restrictToCompressibleTag)
+                .setDefaultValue(false)
+                .setTooltip(Text.literal("Only allow blocks in the compressy:compressible block tag.\n\nData packs can add blocks to the tag.\n\nOnly applies when Allowlist Mode is disabled."))
+                .setSaveConsumer(val -> edited.restrictToCompressibleTag = val)
                 .build());
         
         // Exclusion block list
@@ -183,17 +216,104 @@ public class ClothConfigScreen {
                 Text.literal("Excluded Blocks"),
                 config.excludedBlocks)
                 .setDefaultValue(new ArrayList<>())
-                .setTooltip(Text.literal("Blocks that CANNOT be compressed (when allowlist mode is disabled).\n\nTo add: Click the + button, then type a block ID in the input field.\nTo edit: Click on any entry to modify it.\nTo remove: Click the X button on an entry.\n\nFormat: namespace:blockname (e.g., minecraft:bedrock)"))
+                .setTooltip(Text.literal("Blocks that CANNOT be compressed (when allowlist mode is disabled).\n\nTo add: Click the + button, then type a block ID in the input field.\nTo edit: Click on any entry to modify it.\nTo remove: Click the X button on an entry.\n\nFormat: namespace:blockname (e.g., minecraft:bedrock),\na block tag (e.g., #minecraft:beds) or a glob (e.g., minecraft:*_carpet)"))
                 .setInsertButtonEnabled(true)
                 .setDeleteButtonEnabled(true)
                 .setAddButtonTooltip(Text.literal("Click to add a new block ID.\nA text input will appear - type the block ID and press Enter."))
                 .setRemoveButtonTooltip(Text.literal("Click to remove this block from the exclusion list"))
-                .setSaveConsumer(val -> {
-                    config.excludedBlocks.clear();
-                    config.excludedBlocks.addAll(val);
-                })
+                .setSaveConsumer(val -> edited.excludedBlocks = new ArrayList<>(val))
+                .build());
+        
+        // === CRAFTING CATEGORY ===
+        ConfigCategory crafting = builder.getOrCreateCategory(Text.literal("Crafting"));
+        
+        crafting.addEntry(entryBuilder.startSelector(
+                Text.literal("Multi-Tier Decompression"),
+                new String[] { CompressyConfig.MULTI_TIER_OFF, CompressyConfig.MULTI_TIER_SNEAK, CompressyConfig.MULTI_TIER_ALWAYS },
+                config.multiTierDecompression)
+                .setDefaultValue(CompressyConfig.MULTI_TIER_SNEAK)
+                .setTooltip(Text.literal("Decompress several tiers in one craft, as far down as the output fits\ninto the result slot and your inventory.\n\noff: always one tier down\nsneak: when you shift-click the result\nalways: every time"))
+                .setSaveConsumer(val -> edited.multiTierDecompression = val)
+                .build());
+        
+        crafting.addEntry(entryBuilder.startIntField(
+                Text.literal("Compressor Merges per Tick"),
+                config.compressorOpsPerTick)
+                .setDefaultValue(64)
+                .setMin(1)
+                .setTooltip(Text.literal("Most merges (9 blocks into 1 of the next tier) a Compressor block\nperforms per tick. The rest waits for the next tick."))
+                .setSaveConsumer(val -> edited.compressorOpsPerTick = val)
                 .build());
         
+        crafting.addEntry(entryBuilder.startSelector(
+                Text.literal("Decompress Overflow"),
+                new String[] { CompressyConfig.OVERFLOW_DROP, CompressyConfig.OVERFLOW_ENDER_CHEST, CompressyConfig.OVERFLOW_REFUSE },
+                config.decompressOverflow)
+                .setDefaultValue(CompressyConfig.OVERFLOW_DROP)
+                .setTooltip(Text.literal("Where /cblocks decompress puts output that does not fit in your inventory.\n\ndrop: at your feet (up to one inventory's worth)\nenderchest: into your ender chest\nrefuse: decompress nothing"))
+                .setSaveConsumer(val -> edited.decompressOverflow = val)
+                .build());
+        
+        // === PERFORMANCE CATEGORY ===
+        // Placed blocks only exist in FULL mode
+        if (!CompressyMod.LITE_MODE) {
+            ConfigCategory performance = builder.getOrCreateCategory(Text.literal("Performance"));
+            
+            performance.addEntry(entryBuilder.startIntField(
+                    Text.literal("Reconcile Budget (µs per tick)"),
+                    config.reconcileBudgetMicros)
+                    .setDefaultValue(500)
+                    .setMin(0)
+                    .setTooltip(Text.literal("Time per server tick spent checking placed compressed blocks for leftovers\n(data or entities of blocks removed by explosions, pistons, /setblock...).\n\n0 disables the check."))
+                    .setSaveConsumer(val -> edited.reconcileBudgetMicros = val)
+                    .build());
+            
+            performance.addEntry(entryBuilder.startIntField(
+                    Text.literal("Visual Budget (µs per tick)"),
+                    config.visualBudgetMicros)
+                    .setDefaultValue(1000)
+                    .setMin(0)
+                    .setTooltip(Text.literal("Time per world tick spent spawning labels and overlays of placed blocks\n(entities render mode). The rest waits for the next tick.\n\n0 spawns everything immediately."))
+                    .setSaveConsumer(val -> edited.visualBudgetMicros = val)
+                    .build());
+            
+            performance.addEntry(entryBuilder.startIntField(
+                    Text.literal("Target MSPT"),
+                    config.targetMspt)
+                    .setDefaultValue(45)
+                    .setMin(1)
+                    .setTooltip(Text.literal("While a tick takes longer than this (ms),\nthe visual budget shrinks proportionally."))
+                    .setSaveConsumer(val -> edited.targetMspt = val)
+                    .build());
+            
+            performance.addEntry(entryBuilder.startIntField(
+                    Text.literal("Max Visual Blocks per Chunk"),
+                    config.maxDisplaysPerChunk)
+                    .setDefaultValue(256)
+                    .setMin(0)
+                    .setTooltip(Text.literal("Most compressed blocks with labels/overlays in one chunk.\nBlocks beyond the cap keep their data but get no visuals.\n\n0 = no cap."))
+                    .setSaveConsumer(val -> edited.maxDisplaysPerChunk = val)
+                    .build());
+            
+            performance.addEntry(entryBuilder.startIntField(
+                    Text.literal("Max Visual Blocks per Player"),
+                    config.maxDisplaysPerPlayer)
+                    .setDefaultValue(4096)
+                    .setMin(0)
+                    .setTooltip(Text.literal("Most compressed blocks with labels/overlays placed by one player.\n\n0 = no cap."))
+                    .setSaveConsumer(val -> edited.maxDisplaysPerPlayer = val)
+                    .build());
+            
+            performance.addEntry(entryBuilder.startIntField(
+                    Text.literal("Max Visual Blocks per Dimension"),
+                    config.maxDisplaysPerDimension)
+                    .setDefaultValue(16384)
+                    .setMin(0)
+                    .setTooltip(Text.literal("Most compressed blocks with labels/overlays in one dimension.\n\n0 = no cap."))
+                    .setSaveConsumer(val -> edited.maxDisplaysPerDimension = val)
+                    .build());
+        }
+        
         return builder.build();
     }
 }
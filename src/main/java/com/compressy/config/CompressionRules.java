@@ -0,0 +1,240 @@
+package com.compressy.config;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import com.compressy.CompressyMod;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.CommonLifecycleEvents;
+import net.minecraft.block.Block;
+import net.minecraft.block.Blocks;
+import net.minecraft.item.Item;
+import net.minecraft.registry.Registries;
+import net.minecraft.registry.RegistryKeys;
+import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.registry.tag.TagKey;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.EmptyBlockView;
+
+/**
+ * Block rules from the config, compiled into flat per-block lookup tables.
+ *
+ * WHY:
+ * Every crafting grid change asks "may this block be compressed?". Answering it with
+ * List.contains over ~70 string IDs (after turning the block into a string) was the slow part.
+ *
+ * HOW IT WORKS:
+ * - Every registered block is evaluated against the rules ONCE
+ * - Results go into boolean[] tables indexed by the block's raw registry ID
+ * - A lookup is then one array read: excluded[Registries.BLOCK.getRawId(block)]
+ * - The full-cube placement check is precomputed the same way
+ *
+ * RULE FORMATS (excludedBlocks, allowedBlocks, default exclusions):
+ * - "minecraft:torch"   exact block ID
+ * - "#minecraft:beds"   block tag
+ * - "minecraft:*_door"  glob ({@code *} matches anything)
+ *
+ * The {@code compressy:compressible} tag can be used as a rule ("#compressy:compressible"),
+ * and {@code blocks.restrictToCompressibleTag} limits compression to that tag.
+ *
+ * Tables are rebuilt whenever tags are (re)loaded and whenever a new config snapshot is published
+ * (each table remembers the snapshot it was compiled from).
+ */
+public class CompressionRules {
+
+    private static volatile Compiled compiled;
+
+    /**
+     * Rebuild the tables whenever tags are bound (server start, /reload, joining a server).
+     */
+    public static void register() {
+        CommonLifecycleEvents.TAGS_LOADED.register((registries, client) -> invalidate());
+    }
+
+    /**
+     * Drop the compiled tables - they are rebuilt on next use.
+     */
+    public static void invalidate() {
+        compiled = null;
+    }
+
+    /**
+     * Check if a block may NOT be compressed.
+     */
+    public static boolean isExcluded(Block block) {
+        return get().excluded[Registries.BLOCK.getRawId(block)];
+    }
+
+    /**
+     * Check if a block ID may NOT be compressed.
+     * IDs of unknown blocks (e.g., removed mods) are checked against the ID rules only.
+     */
+    public static boolean isExcluded(String blockId) {
+        Identifier id = Identifier.tryParse(blockId);
+        if (id != null) {
+            Block block = Registries.BLOCK.get(id);
+            if (block != Blocks.AIR || id.equals(Registries.BLOCK.getId(Blocks.AIR))) {
+                return isExcluded(block);
+            }
+        }
+        // Unknown block - tags can't apply, ID and glob rules still can
+        Compiled current = get();
+        return current.useAllowlist
+            ? !current.allowed.matches(blockId, null)
+            : current.excludedRules.matches(blockId, null) || current.restrictToTag;
+    }
+
+    /**
+     * Check if an item is a block that may be compressed.
+     */
+    public static boolean isCompressible(Item item) {
+        Block block = Block.getBlockFromItem(item);
+        return block != Blocks.AIR && !isExcluded(block);
+    }
+
+    /**
+     * Check if a block's default state is a full cube (placeable as a compressed block).
+     */
+    public static boolean isFullCube(Block block) {
+        return get().fullCube[Registries.BLOCK.getRawId(block)];
+    }
+
+    // === Compilation ===
+
+    private static Compiled get() {
+        Compiled current = compiled;
+        CompressyConfig config = CompressyConfig.get();
+        if (current == null || current.config != config || current.size != Registries.BLOCK.size()) {
+            current = compile(config);
+            compiled = current;
+        }
+        return current;
+    }
+
+    private static Compiled compile(CompressyConfig config) {
+        long start = System.nanoTime();
+        int size = Registries.BLOCK.size();
+        RuleSet allowed = RuleSet.parse(config.allowedBlocks);
+        List<String> exclusionRules = new ArrayList<>(config.excludedBlocks);
+        if (config.useDefaultExclusions) {
+            exclusionRules.addAll(CompressyConfig.getDefaultExclusions());
+        }
+        RuleSet excluded = RuleSet.parse(exclusionRules);
+        Compiled result = new Compiled(config, size, allowed, excluded);
+        TagKey<Block> compressible = CompressyMod.COMPRESSIBLE_TAG;
+
+        for (Block block : Registries.BLOCK) {
+            int rawId = Registries.BLOCK.getRawId(block);
+            String blockId = Registries.BLOCK.getId(block).toString();
+            RegistryEntry<Block> entry = block.getRegistryEntry();
+
+            if (config.useAllowlist) {
+                // Allowlist mode: ONLY allowed blocks (exclusions are ignored)
+                result.excluded[rawId] = !allowed.matches(blockId, entry);
+            } else {
+                result.excluded[rawId] = excluded.matches(blockId, entry)
+                    || (config.restrictToCompressibleTag && !entry.isIn(compressible));
+            }
+
+            try {
+                result.fullCube[rawId] = block.getDefaultState().isFullCube(EmptyBlockView.INSTANCE, BlockPos.ORIGIN);
+            } catch (RuntimeException e) {
+                // Some modded shapes need a real world - treat as not placeable
+                result.fullCube[rawId] = false;
+            }
+        }
+
+        CompressyMod.LOGGER.debug("Compiled block rules for {} blocks in {} µs", size, (System.nanoTime() - start) / 1000);
+        return result;
+    }
+
+    private static final class Compiled {
+        final CompressyConfig config;
+        final int size;
+        final boolean[] excluded;
+        final boolean[] fullCube;
+
+        // Kept for block IDs that are not in the registry
+        final boolean useAllowlist;
+        final boolean restrictToTag;
+        final RuleSet allowed;
+        final RuleSet excludedRules;
+
+        Compiled(CompressyConfig config, int size, RuleSet allowed, RuleSet excludedRules) {
+            this.config = config;
+            this.size = size;
+            this.excluded = new boolean[size];
+            this.fullCube = new boolean[size];
+            this.useAllowlist = config.useAllowlist;
+            this.restrictToTag = config.restrictToCompressibleTag;
+            this.allowed = allowed;
+            this.excludedRules = excludedRules;
+        }
+    }
+
+    /**
+     * One parsed rule list: exact IDs, tags and globs.
+     */
+    private record RuleSet(Set<String> ids, List<TagKey<Block>> tags, List<Pattern> globs) {
+
+        static RuleSet parse(List<String> rules) {
+            Set<String> ids = new HashSet<>();
+            List<TagKey<Block>> tags = new ArrayList<>();
+            List<Pattern> globs = new ArrayList<>();
+
+            for (String rule : rules) {
+                String trimmed = rule.trim();
+                if (trimmed.isEmpty()) {
+                    continue;
+                }
+                if (trimmed.startsWith("#")) {
+                    Identifier tagId = Identifier.tryParse(trimmed.substring(1));
+                    if (tagId != null) {
+                        tags.add(TagKey.of(RegistryKeys.BLOCK, tagId));
+                    } else {
+                        CompressyMod.LOGGER.warn("Ignoring invalid block tag rule: {}", rule);
+                    }
+                } else if (trimmed.contains("*")) {
+                    globs.add(toPattern(trimmed));
+                } else {
+                    ids.add(trimmed);
+                }
+            }
+            return new RuleSet(ids, tags, globs);
+        }
+
+        boolean matches(String blockId, RegistryEntry<Block> entry) {
+            if (ids.contains(blockId)) {
+                return true;
+            }
+            if (entry != null) {
+                for (TagKey<Block> tag : tags) {
+                    if (entry.isIn(tag)) {
+                        return true;
+                    }
+                }
+            }
+            for (Pattern glob : globs) {
+                if (glob.matcher(blockId).matches()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static Pattern toPattern(String glob) {
+            StringBuilder regex = new StringBuilder();
+            for (String part : glob.split("\\*", -1)) {
+                if (!regex.isEmpty()) {
+                    regex.append(".*");
+                }
+                regex.append(Pattern.quote(part));
+            }
+            return Pattern.compile(regex.toString());
+        }
+    }
+}
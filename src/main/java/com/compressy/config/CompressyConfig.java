@@ -10,6 +10,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 /**
  * Configuration for Compressy mod.
@@ -20,29 +22,78 @@ import java.util.List;
  * 
  * Config file location: config/compressy.toml
  * Uses TOML format to support comments for user guidance!
+ * 
+ * SNAPSHOTS:
+ * A CompressyConfig is immutable. The current one is published through a single
+ * volatile reference, so any thread (server, render, netty) reading {@link #get()} sees
+ * either the old or the new snapshot - never null, never half-built - without taking a lock.
+ * Changes are made with {@link #toBuilder()} and published with {@link #save(CompressyConfig)}.
+ * Edits to the file on disk are picked up by {@link ConfigWatcher}.
  */
 public class CompressyConfig {
     
-    private static final Path CONFIG_PATH = FabricLoader.getInstance()
+    static final Path CONFIG_PATH = FabricLoader.getInstance()
             .getConfigDir().resolve("compressy.toml");
     
-    private static CompressyConfig INSTANCE;
+    private static volatile CompressyConfig INSTANCE;
+    
+    // Only taken for the very first load - get() is lock-free afterwards
+    private static final Object LOAD_LOCK = new Object();
+    
+    // Notified (on the publishing thread) whenever a new snapshot is published
+    private static final List<Consumer<CompressyConfig>> LISTENERS = new CopyOnWriteArrayList<>();
     
     // === CONFIG OPTIONS ===
     
+    public static final String RENDER_MODE_CLIENT = "client";
+    public static final String RENDER_MODE_ENTITIES = "entities";
+    
+    public static final String OVERFLOW_DROP = "drop";
+    public static final String OVERFLOW_ENDER_CHEST = "enderchest";
+    public static final String OVERFLOW_REFUSE = "refuse";
+    
+    public static final String MULTI_TIER_OFF = "off";
+    public static final String MULTI_TIER_SNEAK = "sneak";
+    public static final String MULTI_TIER_ALWAYS = "always";
+    
     /**
      * Whether to show Roman numeral labels above placed compressed blocks.
      * Only applies to FULL mode.
      * Default: true
      */
-    public boolean showRomanNumerals = true;
+    public final boolean showRomanNumerals;
     
     /**
      * Whether to show the darkening overlay on placed compressed blocks.
      * Only applies to FULL mode.
      * Default: true
      */
-    public boolean showDarkeningOverlay = true;
+    public final boolean showDarkeningOverlay;
+    
+    /**
+     * Whether to bake the name and lore into compressed stacks on the server.
+     * Only needed for players WITHOUT the mod installed (vanilla clients);
+     * modded clients generate the same text themselves.
+     * Default: false
+     */
+    public final boolean serverSideItemText;
+    
+    /**
+     * How tier labels and darkening of placed blocks are shown:
+     * "client"   - drawn by the mod on each client from synced chunk data (no entities);
+     *              the darkening is baked into the chunk mesh
+     * "entities" - TEXT_DISPLAY / BLOCK_DISPLAY entities per block (for players WITHOUT the mod)
+     * Default: "entities" - "client" hides every label and overlay from vanilla clients,
+     * so servers only switch once every player has the mod.
+     */
+    public final String renderMode;
+    
+    /**
+     * Whether adjacent same-tier overlays are merged into one display entity per box.
+     * Only applies to the "entities" render mode.
+     * Default: true
+     */
+    public final boolean mergeOverlays;
     
     /**
      * List of block IDs that CANNOT be compressed.
@@ -50,14 +101,14 @@ public class CompressyConfig {
      * 
      * Default exclusions are non-solid blocks that don't make sense to compress.
      */
-    public List<String> excludedBlocks = new ArrayList<>();
+    public final List<String> excludedBlocks;
     
     /**
      * Whether to use the default exclusion list.
      * If true, default exclusions are added to the excluded list.
      * Default: true
      */
-    public boolean useDefaultExclusions = true;
+    public final boolean useDefaultExclusions;
     
     /**
      * Whether to use allowlist mode.
@@ -65,7 +116,7 @@ public class CompressyConfig {
      * If false, all blocks can be compressed EXCEPT those in excludedBlocks.
      * Default: false
      */
-    public boolean useAllowlist = false;
+    public final boolean useAllowlist;
     
     /**
      * List of block IDs that CAN be compressed (when useAllowlist is true).
@@ -73,10 +124,84 @@ public class CompressyConfig {
      * 
      * When useAllowlist is false, this list is ignored.
      */
-    public List<String> allowedBlocks = new ArrayList<>();
+    public final List<String> allowedBlocks;
+    
+    /**
+     * Whether ONLY blocks in the compressy:compressible tag can be compressed
+     * (on top of the exclusion list). Data packs can extend the tag.
+     * Ignored in allowlist mode.
+     * Default: false
+     */
+    public final boolean restrictToCompressibleTag;
+    
+    /**
+     * Time per server tick (microseconds) the background reconciler may spend
+     * checking placed compressed blocks against the world. 0 disables it.
+     * Default: 500 (0.5 ms)
+     */
+    public final int reconcileBudgetMicros;
+    
+    /**
+     * Time per world tick (microseconds) spent spawning labels and overlays of newly placed
+     * compressed blocks. Work beyond it waits for the next tick. 0 spawns everything immediately.
+     * Default: 1000 (1 ms)
+     */
+    public final int visualBudgetMicros;
+    
+    /**
+     * Tick time (milliseconds) above which the visual budget shrinks proportionally.
+     * Default: 45
+     */
+    public final int targetMspt;
+    
+    /**
+     * Most compressed blocks with labels/overlays per chunk ("entities" render mode).
+     * Blocks placed beyond a cap keep their compression data but get no visuals. 0 = no cap.
+     * Default: 256
+     */
+    public final int maxDisplaysPerChunk;
+    
+    /**
+     * Most compressed blocks with labels/overlays placed by one player, over all dimensions. 0 = no cap.
+     * Default: 4096
+     */
+    public final int maxDisplaysPerPlayer;
+    
+    /**
+     * Most compressed blocks with labels/overlays per dimension. 0 = no cap.
+     * Default: 16384
+     */
+    public final int maxDisplaysPerDimension;
+    
+    /**
+     * Where /cblocks decompress puts output that does not fit in the inventory:
+     * "drop"       - dropped at the player's feet (up to one inventory's worth of stacks)
+     * "enderchest" - into the ender chest
+     * "refuse"     - nothing is decompressed
+     * Default: "drop"
+     */
+    public final String decompressOverflow;
+    
+    /**
+     * When decompressing in a crafting grid goes down several tiers in one craft
+     * (as far as the output fits into the result slot + inventory):
+     * "off"    - never, always one tier down
+     * "sneak"  - when the player shift-clicks the result (the result slot shows one tier down)
+     * "always" - always
+     * Default: "sneak"
+     */
+    public final String multiTierDecompression;
+    
+    /**
+     * Most merges (9 blocks -> 1 of the next tier) a Compressor block performs per tick.
+     * Work beyond it waits for the next tick. Idle compressors cost nothing.
+     * Default: 64
+     */
+    public final int compressorOpsPerTick;
     
     // === DEFAULT EXCLUSIONS ===
     // These are blocks that don't make sense to compress (non-solid, technical, etc.)
+    // Entries may be block IDs, block tags (#minecraft:beds) or globs (minecraft:*_door)
     
     private static final List<String> DEFAULT_EXCLUSIONS = List.of(
         // Technical blocks
@@ -101,10 +226,7 @@ public class CompressyConfig {
         "minecraft:redstone_wall_torch",
         
         // Rails (orientation matters)
-        "minecraft:rail",
-        "minecraft:powered_rail",
-        "minecraft:detector_rail",
-        "minecraft:activator_rail",
+        "#minecraft:rails",
         
         // Redstone components
         "minecraft:redstone_wire",
@@ -113,124 +235,179 @@ public class CompressyConfig {
         "minecraft:tripwire_hook",
         
         // Beds (multi-block)
-        "minecraft:white_bed",
-        "minecraft:orange_bed",
-        "minecraft:magenta_bed",
-        "minecraft:light_blue_bed",
-        "minecraft:yellow_bed",
-        "minecraft:lime_bed",
-        "minecraft:pink_bed",
-        "minecraft:gray_bed",
-        "minecraft:light_gray_bed",
-        "minecraft:cyan_bed",
-        "minecraft:purple_bed",
-        "minecraft:blue_bed",
-        "minecraft:brown_bed",
-        "minecraft:green_bed",
-        "minecraft:red_bed",
-        "minecraft:black_bed",
+        "#minecraft:beds",
         
         // Doors (multi-block)
-        "minecraft:oak_door",
-        "minecraft:spruce_door",
-        "minecraft:birch_door",
-        "minecraft:jungle_door",
-        "minecraft:acacia_door",
-        "minecraft:dark_oak_door",
-        "minecraft:mangrove_door",
-        "minecraft:cherry_door",
-        "minecraft:bamboo_door",
-        "minecraft:crimson_door",
-        "minecraft:warped_door",
-        "minecraft:iron_door",
-        "minecraft:copper_door",
-        "minecraft:exposed_copper_door",
-        "minecraft:weathered_copper_door",
-        "minecraft:oxidized_copper_door",
-        "minecraft:waxed_copper_door",
-        "minecraft:waxed_exposed_copper_door",
-        "minecraft:waxed_weathered_copper_door",
-        "minecraft:waxed_oxidized_copper_door"
+        "#minecraft:doors"
     );
     
+    private CompressyConfig(Builder builder) {
+        this.showRomanNumerals = builder.showRomanNumerals;
+        this.showDarkeningOverlay = builder.showDarkeningOverlay;
+        this.serverSideItemText = builder.serverSideItemText;
+        this.mergeOverlays = builder.mergeOverlays;
+        this.renderMode = RENDER_MODE_CLIENT.equals(builder.renderMode) ? RENDER_MODE_CLIENT : RENDER_MODE_ENTITIES;
+        this.excludedBlocks = List.copyOf(builder.excludedBlocks);
+        this.useDefaultExclusions = builder.useDefaultExclusions;
+        this.useAllowlist = builder.useAllowlist;
+        this.allowedBlocks = List.copyOf(builder.allowedBlocks);
+        this.restrictToCompressibleTag = builder.restrictToCompressibleTag;
+        this.reconcileBudgetMicros = Math.max(0, builder.reconcileBudgetMicros);
+        this.visualBudgetMicros = Math.max(0, builder.visualBudgetMicros);
+        this.targetMspt = Math.max(1, builder.targetMspt);
+        this.maxDisplaysPerChunk = Math.max(0, builder.maxDisplaysPerChunk);
+        this.maxDisplaysPerPlayer = Math.max(0, builder.maxDisplaysPerPlayer);
+        this.maxDisplaysPerDimension = Math.max(0, builder.maxDisplaysPerDimension);
+        this.decompressOverflow = OVERFLOW_ENDER_CHEST.equals(builder.decompressOverflow) || OVERFLOW_REFUSE.equals(builder.decompressOverflow)
+            ? builder.decompressOverflow : OVERFLOW_DROP;
+        this.multiTierDecompression = MULTI_TIER_OFF.equals(builder.multiTierDecompression) || MULTI_TIER_ALWAYS.equals(builder.multiTierDecompression)
+            ? builder.multiTierDecompression : MULTI_TIER_SNEAK;
+        this.compressorOpsPerTick = Math.max(1, builder.compressorOpsPerTick);
+    }
+    
     // === METHODS ===
     
     /**
-     * Get the singleton config instance.
+     * Whether placed blocks are drawn by modded clients instead of display entities.
+     */
+    public boolean isClientRendered() {
+        return RENDER_MODE_CLIENT.equals(renderMode);
+    }
+    
+    /**
+     * Get the current config snapshot (lock-free, never null).
      */
     public static CompressyConfig get() {
-        if (INSTANCE == null) {
-            load();
+        CompressyConfig config = INSTANCE;
+        if (config == null) {
+            synchronized (LOAD_LOCK) {
+                if (INSTANCE == null) {
+                    load();
+                }
+                config = INSTANCE;
+            }
         }
-        return INSTANCE;
+        return config;
     }
     
     /**
      * Reload config from disk (useful after external edits).
+     * The old snapshot stays visible until the new one is fully built.
      */
     public static void reload() {
-        INSTANCE = null; // Force reload
         load();
     }
     
+    /**
+     * Run an action every time a new config snapshot is published
+     * (e.g., to drop caches built from the old one).
+     */
+    public static void onChange(Consumer<CompressyConfig> listener) {
+        LISTENERS.add(listener);
+    }
+    
+    /**
+     * Get a builder pre-filled with this snapshot's values.
+     */
+    public Builder toBuilder() {
+        return new Builder(this);
+    }
+    
+    /**
+     * Atomically swap in a new snapshot and notify listeners.
+     */
+    private static void publish(CompressyConfig config) {
+        INSTANCE = config;
+        for (Consumer<CompressyConfig> listener : LISTENERS) {
+            listener.accept(config);
+        }
+    }
+    
     /**
      * Load config from file, or create default if not exists.
      */
     public static void load() {
         if (Files.exists(CONFIG_PATH)) {
             try {
-                Toml toml = new Toml().read(CONFIG_PATH.toFile());
-                INSTANCE = new CompressyConfig();
-                
-                // Load boolean values
-                INSTANCE.showRomanNumerals = toml.getBoolean("display.showRomanNumerals", true);
-                INSTANCE.showDarkeningOverlay = toml.getBoolean("display.showDarkeningOverlay", true);
-                INSTANCE.useDefaultExclusions = toml.getBoolean("blocks.useDefaultExclusions", true);
-                INSTANCE.useAllowlist = toml.getBoolean("blocks.useAllowlist", false);
-                
-                // Load lists
-                List<Object> excluded = toml.getList("blocks.excludedBlocks");
-                if (excluded != null) {
-                    INSTANCE.excludedBlocks = new ArrayList<>();
-                    for (Object item : excluded) {
-                        if (item != null) {
-                            INSTANCE.excludedBlocks.add(item.toString());
-                        }
-                    }
-                } else {
-                    INSTANCE.excludedBlocks = new ArrayList<>();
-                }
-                
-                List<Object> allowed = toml.getList("blocks.allowedBlocks");
-                if (allowed != null) {
-                    INSTANCE.allowedBlocks = new ArrayList<>();
-                    for (Object item : allowed) {
-                        if (item != null) {
-                            INSTANCE.allowedBlocks.add(item.toString());
-                        }
-                    }
-                } else {
-                    INSTANCE.allowedBlocks = new ArrayList<>();
-                }
-                
+                CompressyConfig config = read(CONFIG_PATH);
+                publish(config);
                 CompressyMod.LOGGER.info("Loaded config from {}", CONFIG_PATH);
-                CompressyMod.LOGGER.info("  showRomanNumerals: {}", INSTANCE.showRomanNumerals);
-                CompressyMod.LOGGER.info("  showDarkeningOverlay: {}", INSTANCE.showDarkeningOverlay);
+                CompressyMod.LOGGER.info("  showRomanNumerals: {}", config.showRomanNumerals);
+                CompressyMod.LOGGER.info("  showDarkeningOverlay: {}", config.showDarkeningOverlay);
             } catch (Exception e) {
-                CompressyMod.LOGGER.error("Failed to load config, using defaults", e);
-                INSTANCE = new CompressyConfig();
+                if (INSTANCE != null) {
+                    // e.g., a half-saved edit - keep running on the last good snapshot
+                    CompressyMod.LOGGER.error("Failed to reload config, keeping current settings", e);
+                } else {
+                    CompressyMod.LOGGER.error("Failed to load config, using defaults", e);
+                    publish(new Builder().build());
+                }
             }
         } else {
-            INSTANCE = new CompressyConfig();
-            save(); // Create default config file with comments
+            save(new Builder().build()); // Create default config file with comments
             CompressyMod.LOGGER.info("Created default config at {}", CONFIG_PATH);
         }
     }
     
+    /**
+     * Parse a config file into a new snapshot.
+     */
+    static CompressyConfig read(Path path) {
+        Toml toml = new Toml().read(path.toFile());
+        Builder builder = new Builder();
+        
+        // Load boolean values
+        builder.showRomanNumerals = toml.getBoolean("display.showRomanNumerals", true);
+        builder.showDarkeningOverlay = toml.getBoolean("display.showDarkeningOverlay", true);
+        builder.serverSideItemText = toml.getBoolean("display.serverSideItemText", false);
+        builder.renderMode = toml.getString("display.renderMode", RENDER_MODE_ENTITIES);
+        builder.mergeOverlays = toml.getBoolean("display.mergeOverlays", true);
+        builder.useDefaultExclusions = toml.getBoolean("blocks.useDefaultExclusions", true);
+        builder.useAllowlist = toml.getBoolean("blocks.useAllowlist", false);
+        builder.restrictToCompressibleTag = toml.getBoolean("blocks.restrictToCompressibleTag", false);
+        builder.reconcileBudgetMicros = toml.getLong("performance.reconcileBudgetMicros", 500L).intValue();
+        builder.visualBudgetMicros = toml.getLong("performance.visualBudgetMicros", 1000L).intValue();
+        builder.targetMspt = toml.getLong("performance.targetMspt", 45L).intValue();
+        builder.maxDisplaysPerChunk = toml.getLong("performance.maxDisplaysPerChunk", 256L).intValue();
+        builder.maxDisplaysPerPlayer = toml.getLong("performance.maxDisplaysPerPlayer", 4096L).intValue();
+        builder.maxDisplaysPerDimension = toml.getLong("performance.maxDisplaysPerDimension", 16384L).intValue();
+        builder.decompressOverflow = toml.getString("commands.decompressOverflow", OVERFLOW_DROP);
+        builder.multiTierDecompression = toml.getString("crafting.multiTierDecompression", MULTI_TIER_SNEAK);
+        builder.compressorOpsPerTick = toml.getLong("crafting.compressorOpsPerTick", 64L).intValue();
+        
+        // Load lists
+        builder.excludedBlocks = readList(toml, "blocks.excludedBlocks");
+        builder.allowedBlocks = readList(toml, "blocks.allowedBlocks");
+        
+        return builder.build();
+    }
+    
+    private static List<String> readList(Toml toml, String key) {
+        List<String> result = new ArrayList<>();
+        List<Object> values = toml.getList(key);
+        if (values != null) {
+            for (Object item : values) {
+                if (item != null) {
+                    result.add(item.toString());
+                }
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Publish a new snapshot and save it to file.
+     */
+    public static void save(CompressyConfig config) {
+        publish(config);
+        save();
+    }
+    
     /**
      * Save current config to file with helpful comments.
      */
     public static void save() {
+        CompressyConfig config = get();
         try {
             Files.createDirectories(CONFIG_PATH.getParent());
             
@@ -245,34 +422,81 @@ public class CompressyConfig {
             toml.append("[display]\n");
             toml.append("# Show Roman numeral tier labels (I, II, III...) above placed compressed blocks.\n");
             toml.append("# Set to false to hide the tier display.\n");
-            toml.append("showRomanNumerals = ").append(INSTANCE.showRomanNumerals).append("\n\n");
+            toml.append("showRomanNumerals = ").append(config.showRomanNumerals).append("\n\n");
             toml.append("# Show darkening overlay effect on higher tier compressed blocks.\n");
             toml.append("# Higher compression levels get progressively darker overlays.\n");
-            toml.append("showDarkeningOverlay = ").append(INSTANCE.showDarkeningOverlay).append("\n\n");
+            toml.append("showDarkeningOverlay = ").append(config.showDarkeningOverlay).append("\n\n");
+            toml.append("# Store item names and lore on compressed stacks (for players without the mod).\n");
+            toml.append("# Modded clients generate them on their own, so leave this off unless vanilla clients join.\n");
+            toml.append("serverSideItemText = ").append(config.serverSideItemText).append("\n\n");
+            toml.append("# How tier labels and darkening are shown: \"client\" (drawn by modded clients, no entities)\n");
+            toml.append("# or \"entities\" (display entities per block, visible to vanilla clients).\n");
+            toml.append("# Only use \"client\" when every player has the mod: vanilla clients then see no labels at all.\n");
+            toml.append("renderMode = \"").append(config.renderMode).append("\"\n\n");
+            toml.append("# Merge the overlays of adjacent same-tier blocks into one entity per box (\"entities\" mode only).\n");
+            toml.append("mergeOverlays = ").append(config.mergeOverlays).append("\n\n");
             
             toml.append("# === BLOCK MANAGEMENT ===\n");
             toml.append("# Control which blocks can be compressed.\n");
             toml.append("[blocks]\n");
             toml.append("# Allowlist mode: If true, ONLY blocks in allowedBlocks can be compressed.\n");
             toml.append("# If false, all blocks can be compressed EXCEPT those in excludedBlocks.\n");
-            toml.append("useAllowlist = ").append(INSTANCE.useAllowlist).append("\n\n");
+            toml.append("useAllowlist = ").append(config.useAllowlist).append("\n\n");
             toml.append("# Use default exclusions: Automatically exclude technical/non-solid blocks.\n");
             toml.append("# This includes air, torches, rails, beds, doors, etc.\n");
             toml.append("# Only applies when useAllowlist is false.\n");
-            toml.append("useDefaultExclusions = ").append(INSTANCE.useDefaultExclusions).append("\n\n");
+            toml.append("useDefaultExclusions = ").append(config.useDefaultExclusions).append("\n\n");
+            toml.append("# Only allow blocks in the compressy:compressible tag (data packs can extend it).\n");
+            toml.append("# Only applies when useAllowlist is false.\n");
+            toml.append("restrictToCompressibleTag = ").append(config.restrictToCompressibleTag).append("\n\n");
             toml.append("# Excluded blocks: Blocks that CANNOT be compressed (when useAllowlist is false).\n");
-            toml.append("# Format: block IDs like \"minecraft:torch\" or \"modid:blockname\"\n");
+            toml.append("# Format: block IDs like \"minecraft:torch\" or \"modid:blockname\",\n");
+            toml.append("#         block tags like \"#minecraft:beds\", or globs like \"minecraft:*_carpet\"\n");
             toml.append("# Example: excludedBlocks = [\"minecraft:bedrock\", \"minecraft:command_block\"]\n");
-            toml.append("excludedBlocks = ").append(formatList(INSTANCE.excludedBlocks)).append("\n\n");
+            toml.append("excludedBlocks = ").append(formatList(config.excludedBlocks)).append("\n\n");
             toml.append("# Allowed blocks: Blocks that CAN be compressed (when useAllowlist is true).\n");
-            toml.append("# Format: block IDs like \"minecraft:stone\" or \"modid:blockname\"\n");
+            toml.append("# Format: block IDs like \"minecraft:stone\" or \"modid:blockname\",\n");
+            toml.append("#         block tags like \"#compressy:compressible\", or globs like \"minecraft:*_planks\"\n");
             toml.append("# Example: allowedBlocks = [\"minecraft:stone\", \"minecraft:dirt\", \"minecraft:cobblestone\"]\n");
-            toml.append("allowedBlocks = ").append(formatList(INSTANCE.allowedBlocks)).append("\n");
+            toml.append("allowedBlocks = ").append(formatList(config.allowedBlocks)).append("\n\n");
+            
+            toml.append("# === PERFORMANCE ===\n");
+            toml.append("# Server-side work limits for placed compressed blocks (FULL mode).\n");
+            toml.append("[performance]\n");
+            toml.append("# Time per tick (microseconds) spent checking placed blocks for orphaned data/entities.\n");
+            toml.append("# Set to 0 to disable the background check.\n");
+            toml.append("reconcileBudgetMicros = ").append(config.reconcileBudgetMicros).append("\n");
+            toml.append("# Time per tick (microseconds) spent spawning labels/overlays of placed blocks (entities mode).\n");
+            toml.append("# The rest waits for the next tick. Set to 0 to spawn everything immediately.\n");
+            toml.append("visualBudgetMicros = ").append(config.visualBudgetMicros).append("\n");
+            toml.append("# Tick time (ms) above which the visual budget shrinks proportionally.\n");
+            toml.append("targetMspt = ").append(config.targetMspt).append("\n");
+            toml.append("# Caps on compressed blocks with labels/overlays (entities mode), counted over loaded chunks.\n");
+            toml.append("# Blocks beyond a cap keep their compression data but get no visuals. 0 = no cap.\n");
+            toml.append("maxDisplaysPerChunk = ").append(config.maxDisplaysPerChunk).append("\n");
+            toml.append("maxDisplaysPerPlayer = ").append(config.maxDisplaysPerPlayer).append("\n");
+            toml.append("maxDisplaysPerDimension = ").append(config.maxDisplaysPerDimension).append("\n\n");
+            
+            toml.append("# === CRAFTING ===\n");
+            toml.append("[crafting]\n");
+            toml.append("# Decompress several tiers in one craft (as far as the output fits the result slot + inventory):\n");
+            toml.append("# \"off\", \"sneak\" (shift-click the result), or \"always\"\n");
+            toml.append("multiTierDecompression = \"").append(config.multiTierDecompression).append("\"\n");
+            toml.append("# Most merges (9 -> 1 of the next tier) a Compressor block performs per tick.\n");
+            toml.append("compressorOpsPerTick = ").append(config.compressorOpsPerTick).append("\n\n");
+            
+            toml.append("# === COMMANDS ===\n");
+            toml.append("[commands]\n");
+            toml.append("# Where /cblocks decompress puts output that does not fit in the inventory:\n");
+            toml.append("# \"drop\" (at your feet), \"enderchest\", or \"refuse\" (decompress nothing)\n");
+            toml.append("decompressOverflow = \"").append(config.decompressOverflow).append("\"\n");
             
-            Files.writeString(CONFIG_PATH, toml.toString());
+            String content = toml.toString();
+            ConfigWatcher.ignoreNextWrite(content);
+            Files.writeString(CONFIG_PATH, content);
             CompressyMod.LOGGER.info("Saved config to {}", CONFIG_PATH);
-            CompressyMod.LOGGER.info("  showRomanNumerals: {}", INSTANCE.showRomanNumerals);
-            CompressyMod.LOGGER.info("  showDarkeningOverlay: {}", INSTANCE.showDarkeningOverlay);
+            CompressyMod.LOGGER.info("  showRomanNumerals: {}", config.showRomanNumerals);
+            CompressyMod.LOGGER.info("  showDarkeningOverlay: {}", config.showDarkeningOverlay);
         } catch (IOException e) {
             CompressyMod.LOGGER.error("Failed to save config", e);
         }
@@ -302,22 +526,8 @@ public class CompressyConfig {
      * @return true if the block should NOT be compressible
      */
     public boolean isBlockExcluded(String blockId) {
-        // If allowlist mode is enabled, check if block is in allowlist
-        if (useAllowlist) {
-            return !allowedBlocks.contains(blockId);
-        }
-        
-        // Exclusion mode: check user exclusions
-        if (excludedBlocks.contains(blockId)) {
-            return true;
-        }
-        
-        // Check default exclusions if enabled
-        if (useDefaultExclusions && DEFAULT_EXCLUSIONS.contains(blockId)) {
-            return true;
-        }
-        
-        return false;
+        // Compiled into a per-block table (supports tags and globs)
+        return CompressionRules.isExcluded(blockId);
     }
     
     /**
@@ -351,5 +561,58 @@ public class CompressyConfig {
     public static List<String> getDefaultExclusions() {
         return DEFAULT_EXCLUSIONS;
     }
+    
+    /**
+     * Mutable builder for config snapshots (used by the loader and the config screen).
+     */
+    public static class Builder {
+        public boolean showRomanNumerals = true;
+        public boolean showDarkeningOverlay = true;
+        public boolean serverSideItemText = false;
+        public String renderMode = RENDER_MODE_ENTITIES;
+        public boolean mergeOverlays = true;
+        public List<String> excludedBlocks = new ArrayList<>();
+        public boolean useDefaultExclusions = true;
+        public boolean useAllowlist = false;
+        public List<String> allowedBlocks = new ArrayList<>();
+        public boolean restrictToCompressibleTag = false;
+        public int reconcileBudgetMicros = 500;
+        public int visualBudgetMicros = 1000;
+        public int targetMspt = 45;
+        public int maxDisplaysPerChunk = 256;
+        public int maxDisplaysPerPlayer = 4096;
+        public int maxDisplaysPerDimension = 16384;
+        public String decompressOverflow = OVERFLOW_DROP;
+        public String multiTierDecompression = MULTI_TIER_SNEAK;
+        public int compressorOpsPerTick = 64;
+        
+        public Builder() {
+        }
+        
+        private Builder(CompressyConfig config) {
+            this.showRomanNumerals = config.showRomanNumerals;
+            this.showDarkeningOverlay = config.showDarkeningOverlay;
+            this.serverSideItemText = config.serverSideItemText;
+            this.renderMode = config.renderMode;
+            this.mergeOverlays = config.mergeOverlays;
+            this.excludedBlocks = new ArrayList<>(config.excludedBlocks);
+            this.useDefaultExclusions = config.useDefaultExclusions;
+            this.useAllowlist = config.useAllowlist;
+            this.allowedBlocks = new ArrayList<>(config.allowedBlocks);
+            this.restrictToCompressibleTag = config.restrictToCompressibleTag;
+            this.reconcileBudgetMicros = config.reconcileBudgetMicros;
+            this.visualBudgetMicros = config.visualBudgetMicros;
+            this.targetMspt = config.targetMspt;
+            this.maxDisplaysPerChunk = config.maxDisplaysPerChunk;
+            this.maxDisplaysPerPlayer = config.maxDisplaysPerPlayer;
+            this.maxDisplaysPerDimension = config.maxDisplaysPerDimension;
+            this.decompressOverflow = config.decompressOverflow;
+            this.multiTierDecompression = config.multiTierDecompression;
+            this.compressorOpsPerTick = config.compressorOpsPerTick;
+        }
+        
+        public CompressyConfig build() {
+            return new CompressyConfig(this);
+        }
+    }
 }
-
@@ -0,0 +1,122 @@
+package com.compressy.config;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+import com.compressy.CompressyMod;
+
+/**
+ * Hot reload for config/compressy.toml.
+ *
+ * WHY:
+ * Changing a rule used to need {@code /cblocks admin reload} or a restart.
+ *
+ * HOW IT WORKS:
+ * - A daemon thread watches the config directory with a {@link WatchService}
+ * - Events for compressy.toml are debounced (editors write files in several steps)
+ * - The file is parsed into a new snapshot, which {@link CompressyConfig} swaps in atomically
+ * - Our own saves are skipped (the written content is remembered and compared)
+ *
+ * Readers never wait on the watcher - they keep seeing the old snapshot until the swap.
+ */
+public class ConfigWatcher {
+
+    // Editors often truncate, write and rename - wait for the file to settle
+    private static final long DEBOUNCE_MS = 250;
+
+    private static volatile String lastWrittenContent;
+    private static Thread thread;
+
+    /**
+     * Start watching the config file (once).
+     */
+    public static synchronized void start() {
+        if (thread != null) {
+            return;
+        }
+        Path configFile = CompressyConfig.CONFIG_PATH;
+        Path directory = configFile.getParent();
+        WatchService watchService;
+        try {
+            Files.createDirectories(directory);
+            watchService = FileSystems.getDefault().newWatchService();
+            directory.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException | UnsupportedOperationException e) {
+            CompressyMod.LOGGER.warn("Config hot reload unavailable - use /cblocks admin reload", e);
+            return;
+        }
+
+        thread = new Thread(() -> watch(watchService, configFile), "Compressy Config Watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Remember content we are about to write, so its file event does not trigger a reload.
+     */
+    static void ignoreNextWrite(String content) {
+        lastWrittenContent = content;
+    }
+
+    private static void watch(WatchService watchService, Path configFile) {
+        Path fileName = configFile.getFileName();
+        try (watchService) {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = drain(key, fileName);
+
+                // Debounce: keep collecting events until the directory is quiet
+                WatchKey next;
+                while ((next = watchService.poll(DEBOUNCE_MS, TimeUnit.MILLISECONDS)) != null) {
+                    changed |= drain(next, fileName);
+                }
+
+                if (changed) {
+                    reloadIfEdited(configFile);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Shutting down
+        } catch (IOException e) {
+            CompressyMod.LOGGER.warn("Config watcher stopped", e);
+        }
+    }
+
+    private static boolean drain(WatchKey key, Path fileName) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (fileName.equals(event.context())) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    private static void reloadIfEdited(Path configFile) {
+        try {
+            if (!Files.exists(configFile)) {
+                return;
+            }
+            String content = Files.readString(configFile);
+            if (content.equals(lastWrittenContent)) {
+                return; // Our own save
+            }
+            lastWrittenContent = content;
+            CompressyConfig.reload();
+            CompressyMod.LOGGER.info("Config file changed - reloaded");
+        } catch (IOException e) {
+            CompressyMod.LOGGER.warn("Failed to read changed config file", e);
+        }
+    }
+}
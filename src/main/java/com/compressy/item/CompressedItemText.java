@@ -0,0 +1,266 @@
+package com.compressy.item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.compressy.component.CompressionComponent;
+import com.compressy.config.CompressyConfig;
+
+import net.minecraft.component.DataComponentTypes;
+import net.minecraft.component.type.LoreComponent;
+import net.minecraft.item.ItemStack;
+import net.minecraft.text.Text;
+import net.minecraft.text.TextColor;
+import net.minecraft.util.Formatting;
+
+/**
+ * Display name and lore of compressed stacks.
+ *
+ * WHY:
+ * Stacks used to carry a CUSTOM_NAME and a 9-line LORE component of styled text.
+ * That was sent in every inventory sync, saved in every chest and compared on every stack merge.
+ * Now a stack only carries its {@link CompressionComponent}; the text is built from it on demand.
+ *
+ * HOW IT WORKS:
+ * - Name: {@code ItemStackMixin} answers {@code getItemName()} from {@link #getName}
+ * - Lore: the client tooltip callback inserts {@link #getLore} under the name
+ * - Both are built once per (block, tier) and cached - the component record is the cache key
+ *
+ * VANILLA CLIENTS:
+ * With {@code display.serverSideItemText} enabled, {@link #applyServerSideText} bakes the same
+ * name and lore into the stack, so players without the mod still see them.
+ */
+public class CompressedItemText {
+
+    private static final Map<CompressionComponent, Text> NAME_CACHE = new ConcurrentHashMap<>();
+    private static final Map<CompressionComponent, List<Text>> LORE_CACHE = new ConcurrentHashMap<>();
+    private static final Map<Integer, Text> LABEL_CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Get the display name of a compressed stack (e.g., "◆ Cobblestone IV").
+     */
+    public static Text getName(CompressionComponent data) {
+        return NAME_CACHE.computeIfAbsent(data, CompressedItemText::createName);
+    }
+
+    /**
+     * Get the tooltip lore lines of a compressed stack.
+     */
+    public static List<Text> getLore(CompressionComponent data) {
+        return LORE_CACHE.computeIfAbsent(data, key -> List.copyOf(createLore(key.level())));
+    }
+
+    /**
+     * Get the tier label shown above placed compressed blocks (e.g., " IV " in the tier color).
+     */
+    public static Text getLabel(int level) {
+        return LABEL_CACHE.computeIfAbsent(level, key -> Text.literal(" " + toRoman(key) + " ")
+            .styled(s -> s.withColor(getTierColor(key)).withBold(true)));
+    }
+    
+    /**
+     * Bake name and lore into the stack for vanilla clients (if enabled in config).
+     */
+    public static void applyServerSideText(ItemStack stack, CompressionComponent data) {
+        if (!CompressyConfig.get().serverSideItemText) {
+            return;
+        }
+        stack.set(DataComponentTypes.CUSTOM_NAME, getName(data));
+        stack.set(DataComponentTypes.LORE, new LoreComponent(getLore(data)));
+    }
+
+    /**
+     * Drop all cached text (e.g., after a resource reload).
+     */
+    public static void clearCache() {
+        NAME_CACHE.clear();
+        LORE_CACHE.clear();
+    }
+
+    // === Text Builders ===
+
+    private static Text createName(CompressionComponent data) {
+        int level = data.level();
+        TextColor nameColor = getTierColor(level);
+        return Text.literal(getTierSymbol(level) + " ")
+            .styled(style -> style.withColor(nameColor).withItalic(false))
+            .append(Text.literal(formatBlockName(data.block()))
+                .styled(style -> style.withColor(nameColor).withItalic(false).withBold(true)))
+            .append(Text.literal(" " + toRoman(level))
+                .styled(style -> style.withColor(getContrastColor(level)).withItalic(false).withBold(true)));
+    }
+
+    private static List<Text> createLore(int level) {
+        List<Text> lore = new ArrayList<>();
+        TextColor color = getTierColor(level);
+
+        // Tier indicator bar
+        lore.add(Text.literal(getTierBar(level)).styled(s -> s.withColor(color).withItalic(false)));
+
+        // Empty line
+        lore.add(Text.empty());
+
+        // Compression tier with roman numeral
+        lore.add(Text.literal("⬥ Tier: ").styled(s -> s.withColor(Formatting.GRAY).withItalic(false))
+            .append(Text.literal(toRoman(level)).styled(s -> s.withColor(color).withBold(true).withItalic(false))));
+
+        // Block count
+        lore.add(Text.literal("⬥ Contains: ").styled(s -> s.withColor(Formatting.GRAY).withItalic(false))
+            .append(Text.literal(calculateBlockCountString(level) + " blocks").styled(s -> s.withColor(Formatting.WHITE).withItalic(false))));
+
+        // Empty line
+        lore.add(Text.empty());
+
+        // Tier-specific flavor text
+        lore.add(getTierFlavorText(level));
+
+        // Empty line
+        lore.add(Text.empty());
+
+        // Instructions
+        lore.add(Text.literal("▸ ").styled(s -> s.withColor(Formatting.DARK_GRAY).withItalic(false))
+            .append(Text.literal("3×3 craft to compress more").styled(s -> s.withColor(Formatting.GREEN).withItalic(false))));
+        lore.add(Text.literal("▸ ").styled(s -> s.withColor(Formatting.DARK_GRAY).withItalic(false))
+            .append(Text.literal("Craft alone to decompress").styled(s -> s.withColor(Formatting.AQUA).withItalic(false))));
+
+        return lore;
+    }
+
+    // === Tier Styling ===
+
+    /**
+     * Get tier-based color - gradient from bright cyan → purple → dark red → gold for max
+     */
+    private static TextColor getTierColor(int level) {
+        if (level <= 3) return TextColor.fromRgb(0x55FFFF);   // Bright cyan
+        if (level <= 6) return TextColor.fromRgb(0x55FF55);   // Bright green
+        if (level <= 10) return TextColor.fromRgb(0xFFFF55);  // Yellow
+        if (level <= 15) return TextColor.fromRgb(0xFFAA00);  // Orange
+        if (level <= 20) return TextColor.fromRgb(0xFF5555);  // Red
+        if (level <= 25) return TextColor.fromRgb(0xFF55FF);  // Magenta
+        if (level <= 30) return TextColor.fromRgb(0xAA00AA);  // Dark magenta
+        return TextColor.fromRgb(0xFFD700);                    // Gold for max tiers
+    }
+
+    /**
+     * Get contrasting color for roman numeral - ensures readability
+     */
+    private static TextColor getContrastColor(int level) {
+        if (level <= 10) return TextColor.fromRgb(0x1A1A1A);  // Dark for light tiers
+        if (level <= 20) return TextColor.fromRgb(0xFFFFFF);  // White for mid tiers
+        if (level <= 30) return TextColor.fromRgb(0xFFFF55);  // Yellow for dark tiers
+        return TextColor.fromRgb(0x000000);                    // Black on gold
+    }
+
+    private static String getTierSymbol(int level) {
+        if (level <= 3) return "◇";      // Diamond outline - basic
+        if (level <= 6) return "◆";      // Filled diamond - uncommon
+        if (level <= 10) return "★";     // Star - rare
+        if (level <= 15) return "✦";     // 4-pointed star - epic
+        if (level <= 20) return "✧";     // Sparkle - legendary
+        if (level <= 25) return "❖";     // Diamond with dot - mythic
+        if (level <= 30) return "✴";     // 8-pointed star - cosmic
+        return "☆";                       // Outlined star - OMEGA
+    }
+
+    private static String getTierBar(int level) {
+        int filled = Math.min(level, 32);
+        int segments = 16;
+        int filledSegments = (filled * segments) / 32;
+        int emptySegments = segments - filledSegments;
+        return "▓".repeat(filledSegments) + "░".repeat(emptySegments);
+    }
+
+    private static Text getTierFlavorText(int level) {
+        String text;
+        Formatting color;
+
+        if (level <= 3) {
+            text = "Lightly compressed";
+            color = Formatting.GRAY;
+        } else if (level <= 6) {
+            text = "Notably dense";
+            color = Formatting.GREEN;
+        } else if (level <= 10) {
+            text = "Remarkably compact";
+            color = Formatting.YELLOW;
+        } else if (level <= 15) {
+            text = "Extraordinarily dense";
+            color = Formatting.GOLD;
+        } else if (level <= 20) {
+            text = "Impossibly compressed";
+            color = Formatting.RED;
+        } else if (level <= 25) {
+            text = "Reality-bending density";
+            color = Formatting.LIGHT_PURPLE;
+        } else if (level <= 30) {
+            text = "Cosmic singularity";
+            color = Formatting.DARK_PURPLE;
+        } else {
+            text = "☆ OMEGA COMPRESSION ☆";
+            color = Formatting.GOLD;
+        }
+
+        return Text.literal(text).styled(s -> s.withColor(color).withItalic(true));
+    }
+
+    /**
+     * Convert number to Roman numerals (supports up to 40)
+     */
+    public static String toRoman(int num) {
+        if (num <= 0 || num > 40) return String.valueOf(num);
+        String[] tens = {"", "X", "XX", "XXX", "XL"};
+        String[] ones = {"", "I", "II", "III", "IV", "V", "VI", "VII", "VIII", "IX"};
+        return tens[num / 10] + ones[num % 10];
+    }
+
+    /**
+     * Format block ID into a nice display name
+     * e.g., "minecraft:cobblestone" -> "Cobblestone"
+     */
+    public static String formatBlockName(String blockId) {
+        String name = blockId;
+        if (name.contains(":")) {
+            name = name.substring(name.indexOf(':') + 1);
+        }
+        String[] words = name.split("_");
+        StringBuilder result = new StringBuilder();
+        for (String word : words) {
+            if (!word.isEmpty()) {
+                result.append(Character.toUpperCase(word.charAt(0)))
+                      .append(word.substring(1))
+                      .append(" ");
+            }
+        }
+        return result.toString().trim();
+    }
+
+    /**
+     * Calculate human-readable block count for a compression level
+     */
+    private static String calculateBlockCountString(int level) {
+        return switch (level) {
+            case 1 -> "9";
+            case 2 -> "81";
+            case 3 -> "729";
+            case 4 -> "6,561";
+            case 5 -> "59,049";
+            case 6 -> "531,441";
+            case 7 -> "4.78M";
+            case 8 -> "43M";
+            case 9 -> "387M";
+            case 10 -> "3.49B";
+            case 11 -> "31.4B";
+            case 12 -> "282B";
+            case 13 -> "2.54T";
+            case 14 -> "22.9T";
+            case 15 -> "206T";
+            default -> level <= 20 ? "Quadrillions+" :
+                       level <= 25 ? "Sextillions+" :
+                       level <= 30 ? "Octillions+" :
+                       "∞ (Astronomical)";
+        };
+    }
+}
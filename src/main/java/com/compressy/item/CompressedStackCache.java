@@ -0,0 +1,94 @@
+package com.compressy.item;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.compressy.component.CompressionComponent;
+import com.compressy.config.CompressyConfig;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.minecraft.item.ItemStack;
+
+/**
+ * Bounded LRU cache of prototype compressed stacks, keyed by (block, tier).
+ *
+ * WHY:
+ * Building a compressed stack resolves the block and item from the registries,
+ * sets components and (with server-side text) builds the name and lore.
+ * Crafting the same block over and over repeats all of that for an identical result.
+ *
+ * HOW IT WORKS:
+ * - The first request for a (block, tier) builds the prototype (miss)
+ * - Every later request is a copy of the prototype with the count set (hit)
+ * - Prototypes are never handed out - only copies - so they stay immutable
+ * - The least recently used entry is evicted once MAX_ENTRIES is reached
+ *
+ * Cleared after data pack reloads (registries/tags may have changed) and whenever
+ * a new config snapshot is published (server-side text may have changed).
+ */
+public class CompressedStackCache {
+
+    private static final int MAX_ENTRIES = 512;
+
+    private static final Map<CompressionComponent, ItemStack> PROTOTYPES =
+        new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CompressionComponent, ItemStack> eldest) {
+                return size() > MAX_ENTRIES;
+            }
+        };
+
+    private static long hits;
+    private static long misses;
+
+    /**
+     * Clear the cache whenever data packs or the config are reloaded.
+     */
+    public static void register() {
+        ServerLifecycleEvents.END_DATA_PACK_RELOAD.register((server, resourceManager, success) -> invalidate());
+        CompressyConfig.onChange(config -> invalidate());
+    }
+
+    /**
+     * Get a copy of the prototype for a (block, tier), building it on a miss.
+     *
+     * @param factory Builds the prototype; may return null for stacks that must not be cached
+     * @return A fresh copy with the given count, or null if the factory returned null
+     */
+    public static synchronized ItemStack get(CompressionComponent key, int count, Function<CompressionComponent, ItemStack> factory) {
+        ItemStack prototype = PROTOTYPES.get(key);
+        if (prototype != null) {
+            hits++;
+            return prototype.copyWithCount(count);
+        }
+
+        misses++;
+        prototype = factory.apply(key);
+        if (prototype == null) {
+            return null;
+        }
+        PROTOTYPES.put(key, prototype);
+        return prototype.copyWithCount(count);
+    }
+
+    /**
+     * Drop every prototype (counters are kept).
+     */
+    public static synchronized void invalidate() {
+        PROTOTYPES.clear();
+        CompressedItemText.clearCache();
+    }
+
+    public static synchronized int size() {
+        return PROTOTYPES.size();
+    }
+
+    public static synchronized long getHits() {
+        return hits;
+    }
+
+    public static synchronized long getMisses() {
+        return misses;
+    }
+}
@@ -0,0 +1,197 @@
+package com.compressy.item;
+
+import com.compressy.CompressyMod;
+import com.compressy.component.CompressionComponent;
+import com.compressy.config.CompressyConfig;
+
+import net.minecraft.block.Block;
+import net.minecraft.block.Blocks;
+import net.minecraft.component.DataComponentTypes;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.registry.Registries;
+import net.minecraft.screen.ScreenHandler;
+import net.minecraft.screen.slot.Slot;
+import net.minecraft.text.Text;
+import net.minecraft.util.Identifier;
+
+/**
+ * The ONE place compressed stacks are built.
+ *
+ * WHY:
+ * Crafting, decompressing and breaking a placed block used to build stacks three different ways
+ * (different lore, different item fallbacks). Stacks that only differ in components do not merge,
+ * so identical blocks ended up in separate slots.
+ *
+ * HOW IT WORKS:
+ * - {@link #create} builds the canonical stack for a (block, tier): resolved item + component (+ glint),
+ *   copied from a cached prototype (see {@link CompressedStackCache})
+ * - {@link #createBase} builds the uncompressed stack for a block ID
+ * - {@link #normalize} rewrites stacks from older versions into the canonical form
+ *
+ * Normalizing runs lazily when a player opens a screen (see {@code ServerPlayerEntityMixin}),
+ * so old stacks are fixed before they are shown. Containers are NOT scanned as their chunks load:
+ * that touched every block entity on every load and rolled unopened loot chests with no player.
+ */
+public class CompressedStacks {
+
+    /**
+     * Create the canonical compressed stack.
+     *
+     * Served from {@link CompressedStackCache} - only the first stack of a (block, tier) is built.
+     *
+     * @param blockId  The original BLOCK ID (e.g., "minecraft:cobblestone")
+     * @param level    The compression tier (1-32)
+     * @param count    Stack size
+     * @param fallback Item to use if the block ID cannot be resolved (e.g., removed mod)
+     */
+    public static ItemStack create(String blockId, int level, int count, Item fallback) {
+        CompressionComponent data = new CompressionComponent(blockId, level);
+        ItemStack stack = CompressedStackCache.get(data, count, CompressedStacks::buildPrototype);
+        if (stack != null) {
+            return stack;
+        }
+        // Unresolvable block - depends on the caller's fallback, so never cached
+        return build(fallback, data, count);
+    }
+
+    /**
+     * Build a fresh canonical stack (count 1) without going through the cache.
+     * For other tables that keep their own copies (e.g., DecompressionTable).
+     *
+     * @return The stack, or null if the block ID cannot be resolved
+     */
+    public static ItemStack buildPrototype(CompressionComponent data) {
+        Item item = resolveItem(data.block(), null);
+        return item == null ? null : build(item, data, 1);
+    }
+
+    private static ItemStack build(Item item, CompressionComponent data, int count) {
+        ItemStack stack = new ItemStack(item, count);
+        stack.set(CompressyMod.COMPRESSION_COMPONENT, data);
+
+        // Name and lore are generated from the component (see CompressedItemText)
+        CompressedItemText.applyServerSideText(stack, data);
+
+        // Glint for high levels (starts at level 5)
+        if (data.level() >= 5) {
+            stack.set(DataComponentTypes.ENCHANTMENT_GLINT_OVERRIDE, true);
+        }
+        return stack;
+    }
+
+    /**
+     * Create an uncompressed stack of the original block.
+     */
+    public static ItemStack createBase(String blockId, int count, Item fallback) {
+        return new ItemStack(resolveItem(blockId, fallback), count);
+    }
+
+    /**
+     * Resolve the item form of a stored block ID.
+     *
+     * The ID is normally a BLOCK ID, but saves from old versions may hold an item ID.
+     *
+     * @return The item, or the fallback (which may be null) if the ID is unknown
+     */
+    public static Item resolveItem(String blockId, Item fallback) {
+        if (blockId == null || blockId.isEmpty()) {
+            return fallback;
+        }
+        Identifier id = Identifier.tryParse(blockId);
+        if (id == null) {
+            return fallback;
+        }
+
+        // Get item from block - this is the correct way for ALL blocks
+        Block block = Registries.BLOCK.get(id);
+        if (block != Blocks.AIR) {
+            Item item = block.asItem();
+            if (item != Items.AIR) {
+                return item;
+            }
+        }
+
+        // Fallback: might be an item ID from an old save
+        Item item = Registries.ITEM.get(id);
+        return item != Items.AIR ? item : fallback;
+    }
+
+    // === Normalizer ===
+
+    /**
+     * Rewrite a compressed stack into its canonical form.
+     *
+     * Handles CUSTOM_DATA stacks, stored name/lore from older versions and
+     * stacks whose item no longer matches their block.
+     *
+     * @return The canonical stack - the same instance if it could be fixed in place
+     */
+    public static ItemStack normalize(ItemStack stack) {
+        // The one place legacy CUSTOM_DATA is migrated to the component
+        CompressionComponent data = CompressionComponent.upgrade(stack);
+        if (data == null) {
+            return stack;
+        }
+
+        if (CompressyConfig.get().serverSideItemText) {
+            CompressedItemText.applyServerSideText(stack, data);
+        } else {
+            stack.remove(DataComponentTypes.LORE);
+            // Only drop names we generated - anvil renames stay
+            Text customName = stack.get(DataComponentTypes.CUSTOM_NAME);
+            if (customName != null && customName.getString().equals(CompressedItemText.getName(data).getString())) {
+                stack.remove(DataComponentTypes.CUSTOM_NAME);
+            }
+        }
+
+        if (data.level() >= 5) {
+            stack.set(DataComponentTypes.ENCHANTMENT_GLINT_OVERRIDE, true);
+        }
+
+        Item item = resolveItem(data.block(), stack.getItem());
+        if (item != stack.getItem()) {
+            return stack.withItem(item);
+        }
+        return stack;
+    }
+
+    /**
+     * Check whether a stack is already canonical (cheap, no copies).
+     */
+    public static boolean isCanonical(ItemStack stack) {
+        if (stack.isEmpty()) {
+            return true;
+        }
+        CompressionComponent data = stack.get(CompressyMod.COMPRESSION_COMPONENT);
+        if (data == null) {
+            // Either a normal stack or a legacy one that still needs upgrading
+            return !CompressionComponent.isLegacy(stack);
+        }
+        boolean textOk = CompressyConfig.get().serverSideItemText
+            ? stack.contains(DataComponentTypes.LORE)
+            : !stack.contains(DataComponentTypes.LORE);
+        return textOk
+            && (data.level() < 5 || stack.contains(DataComponentTypes.ENCHANTMENT_GLINT_OVERRIDE))
+            && resolveItem(data.block(), stack.getItem()) == stack.getItem();
+    }
+
+    /**
+     * Normalize every slot of a screen handler (before its first sync to the player).
+     */
+    public static void normalize(ScreenHandler handler) {
+        for (Slot slot : handler.slots) {
+            ItemStack stack = slot.getStack();
+            if (isCanonical(stack)) {
+                continue;
+            }
+            ItemStack normalized = normalize(stack);
+            if (normalized != stack) {
+                slot.setStackNoCallbacks(normalized);
+            } else {
+                slot.markDirty();
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.compressy.item;
+
+import java.math.BigInteger;
+
+import com.compressy.component.CompressionComponent;
+
+/**
+ * Base-9 arithmetic for compression tiers.
+ *
+ * WHY:
+ * One tier-N block is worth 9^N base blocks, so any amount of a block written in base 9
+ * IS its tier distribution: digit k is the number of tier-k blocks. Working out how to
+ * compress (or unpack) a whole inventory needs no crafting simulation at all.
+ *
+ * Amounts are BigIntegers - a single tier-20 block is already more than a long can hold.
+ */
+public final class CompressionMath {
+
+    private static final BigInteger NINE = BigInteger.valueOf(9);
+    private static final BigInteger[] POWERS = new BigInteger[CompressionComponent.MAX_LEVEL + 1];
+
+    static {
+        POWERS[0] = BigInteger.ONE;
+        for (int tier = 1; tier < POWERS.length; tier++) {
+            POWERS[tier] = POWERS[tier - 1].multiply(NINE);
+        }
+    }
+
+    private CompressionMath() {
+    }
+
+    /**
+     * 9^tier - the number of base blocks in one block of that tier (tier 0 = base block).
+     */
+    public static BigInteger power(int tier) {
+        return POWERS[tier];
+    }
+
+    /**
+     * The worth of count blocks of a tier, in base blocks.
+     */
+    public static BigInteger toBase(int tier, long count) {
+        return POWERS[tier].multiply(BigInteger.valueOf(count));
+    }
+
+    /**
+     * Split an amount of base blocks into the fewest blocks, using tiers 0 to maxTier.
+     *
+     * Every tier below maxTier gets its base-9 digit (0-8); maxTier gets everything above.
+     *
+     * @return Count per tier, index = tier (length maxTier + 1)
+     * @throws ArithmeticException if the count at maxTier does not fit in a long
+     */
+    public static long[] distribute(BigInteger total, int maxTier) {
+        long[] counts = new long[maxTier + 1];
+        BigInteger rest = total;
+        for (int tier = 0; tier < maxTier; tier++) {
+            BigInteger[] divided = rest.divideAndRemainder(NINE);
+            counts[tier] = divided[1].longValue();
+            rest = divided[0];
+        }
+        counts[maxTier] = rest.longValueExact();
+        return counts;
+    }
+
+    /**
+     * Number of blocks of a lower tier that count blocks of a higher tier unpack into.
+     *
+     * @throws ArithmeticException if the result does not fit in a long
+     */
+    public static long unpack(long count, int fromTier, int toTier) {
+        return toBase(fromTier - toTier, count).longValueExact();
+    }
+}
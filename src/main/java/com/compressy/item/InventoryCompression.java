@@ -0,0 +1,339 @@
+package com.compressy.item;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.compressy.component.CompressionComponent;
+import com.compressy.config.CompressionRules;
+import com.compressy.config.CompressyConfig;
+
+import net.minecraft.block.Block;
+import net.minecraft.block.Blocks;
+import net.minecraft.component.DataComponentTypes;
+import net.minecraft.entity.ItemEntity;
+import net.minecraft.entity.player.PlayerInventory;
+import net.minecraft.inventory.Inventory;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.registry.Registries;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.text.Text;
+
+/**
+ * Compress everything in an inventory at once ({@code /cblocks compressall}),
+ * or unpack a held stack to any lower tier ({@code /cblocks decompress}).
+ *
+ * WHY:
+ * Compressing a double chest of cobblestone to high tiers took hundreds of manual crafts,
+ * and unpacking a high-tier block took thousands.
+ *
+ * COMPRESS ALL:
+ * - One pass sums every compressible stack per block type, in base blocks
+ *   (plain stacks count 1, compressed stacks 9^tier each)
+ * - The total is split with {@link CompressionMath#distribute} - its base-9 digits are the
+ *   fewest blocks that add up to it, up to the requested max tier
+ * - The slots that held those stacks are cleared and the new stacks are written back in one pass
+ *
+ * Nothing is changed unless every new stack fits (the old slots + empty slots). Only slots the
+ * inventory accepts the stack in are read from or written to ({@link Inventory#isValid}), and stacks
+ * are capped at the inventory's max count - a furnace's output slot or a crafter's disabled slots
+ * are never touched.
+ * Stacks above the max tier are left alone (compressing never unpacks), and so are
+ * plain stacks with extra components (renamed, enchanted...) and renamed compressed stacks.
+ *
+ * DECOMPRESS:
+ * - Output = amount x 9^(tier - target), computed with {@link CompressionMath#unpack}
+ * - Filled into the main inventory, the rest goes to the configured overflow
+ *   ({@code commands.decompressOverflow}: drop, ender chest or refuse)
+ * - Room is checked BEFORE anything changes - either the whole amount is unpacked or nothing
+ */
+public final class InventoryCompression {
+
+    /**
+     * @param types      Number of block types that were compressed
+     * @param stacksBefore Slots used by those types before
+     * @param stacksAfter  Slots used by those types after
+     * @param fits       false if the result did not fit - the inventory was not changed
+     */
+    public record Result(int types, int stacksBefore, int stacksAfter, boolean fits) {
+    }
+
+    public enum Status {
+        DONE,
+        NOT_COMPRESSED,
+        INVALID_TIER,
+        /** The output does not fit - not even with the overflow */
+        NO_ROOM
+    }
+
+    /**
+     * @param status     What happened
+     * @param consumed   Compressed blocks taken from the hand
+     * @param output     The output stack (count 1), EMPTY unless DONE
+     * @param produced   Total output items
+     * @param overflowed Output items that went to the overflow
+     */
+    public record Decompression(Status status, int consumed, ItemStack output, long produced, long overflowed) {
+        static Decompression failed(Status status) {
+            return new Decompression(status, 0, ItemStack.EMPTY, 0, 0);
+        }
+    }
+
+    // Most stacks the "drop" overflow spawns at once (one inventory's worth)
+    private static final int MAX_DROPPED_STACKS = PlayerInventory.MAIN_SIZE;
+
+    private InventoryCompression() {
+    }
+
+    /**
+     * Compress every compressible stack in slots [start, end) of an inventory.
+     *
+     * @param maxTier Highest tier to produce (1-32)
+     */
+    public static Result compressAll(Inventory inventory, int start, int end, int maxTier) {
+        // blockId -> total in base blocks, and the item its plain stacks use
+        Map<String, BigInteger> totals = new LinkedHashMap<>();
+        Map<String, Item> baseItems = new LinkedHashMap<>();
+        List<Integer> usedSlots = new ArrayList<>();
+        boolean[] used = new boolean[end - start];
+        int emptySlots = 0;
+
+        for (int slot = start; slot < end; slot++) {
+            ItemStack stack = inventory.getStack(slot);
+            if (stack.isEmpty()) {
+                emptySlots++;
+                continue;
+            }
+            String blockId = getBlockId(stack);
+            if (blockId == null || !inventory.isValid(slot, stack)) {
+                continue;
+            }
+            CompressionComponent data = CompressionComponent.get(stack);
+            int tier = data == null ? 0 : data.level();
+            if (tier > maxTier) {
+                continue; // Compressing never decompresses - higher tiers stay as they are
+            }
+            totals.merge(blockId, CompressionMath.toBase(tier, stack.getCount()), BigInteger::add);
+            if (data == null) {
+                baseItems.putIfAbsent(blockId, stack.getItem());
+            }
+            usedSlots.add(slot);
+            used[slot - start] = true;
+        }
+
+        // Build the new stacks
+        int available = usedSlots.size() + emptySlots;
+        List<ItemStack> result = new ArrayList<>();
+        for (Map.Entry<String, BigInteger> entry : totals.entrySet()) {
+            String blockId = entry.getKey();
+            long[] counts;
+            try {
+                counts = CompressionMath.distribute(entry.getValue(), maxTier);
+            } catch (ArithmeticException e) {
+                return new Result(totals.size(), usedSlots.size(), Integer.MAX_VALUE, false);
+            }
+            Item baseItem = baseItems.get(blockId);
+            for (int tier = maxTier; tier >= 0; tier--) {
+                if (!addStacks(result, inventory, blockId, tier, counts[tier], baseItem, available)) {
+                    return new Result(totals.size(), usedSlots.size(), Integer.MAX_VALUE, false);
+                }
+            }
+        }
+
+        // Pick a slot for every new stack (old slots first, then empty ones) before changing anything
+        List<Integer> candidates = new ArrayList<>(usedSlots);
+        for (int slot = start; slot < end; slot++) {
+            if (!used[slot - start] && inventory.getStack(slot).isEmpty()) {
+                candidates.add(slot);
+            }
+        }
+        int[] targets = new int[result.size()];
+        boolean[] taken = new boolean[candidates.size()];
+        for (int i = 0; i < result.size(); i++) {
+            targets[i] = -1;
+            for (int c = 0; c < candidates.size() && targets[i] < 0; c++) {
+                if (!taken[c] && inventory.isValid(candidates.get(c), result.get(i))) {
+                    taken[c] = true;
+                    targets[i] = candidates.get(c);
+                }
+            }
+            if (targets[i] < 0) {
+                return new Result(totals.size(), usedSlots.size(), Integer.MAX_VALUE, false);
+            }
+        }
+
+        // Write back
+        for (int slot : usedSlots) {
+            inventory.setStack(slot, ItemStack.EMPTY);
+        }
+        for (int i = 0; i < result.size(); i++) {
+            inventory.setStack(targets[i], result.get(i));
+        }
+        inventory.markDirty();
+        return new Result(totals.size(), usedSlots.size(), result.size(), true);
+    }
+
+    /**
+     * Unpack compressed blocks from the player's main hand to a lower tier in one step.
+     *
+     * @param amount     Compressed blocks to unpack (capped at the held count)
+     * @param targetTier Tier to unpack to (0 = the original block), below the held tier
+     */
+    public static Decompression decompressHeld(ServerPlayerEntity player, int amount, int targetTier) {
+        PlayerInventory inventory = player.getInventory();
+        ItemStack held = player.getMainHandStack();
+        CompressionComponent data = CompressionComponent.get(held);
+        if (data == null) {
+            return Decompression.failed(Status.NOT_COMPRESSED);
+        }
+        if (targetTier < 0 || targetTier >= data.level()) {
+            return Decompression.failed(Status.INVALID_TIER);
+        }
+
+        int consumed = Math.min(amount, held.getCount());
+        ItemStack output = targetTier == 0
+            ? CompressedStacks.createBase(data.block(), 1, held.getItem())
+            : CompressedStacks.create(data.block(), targetTier, 1, held.getItem());
+        long produced;
+        try {
+            produced = CompressionMath.unpack(consumed, data.level(), targetTier);
+        } catch (ArithmeticException e) {
+            return Decompression.failed(Status.NO_ROOM);
+        }
+
+        // The held slot is free for output if the whole stack is unpacked
+        int heldSlot = inventory.getSelectedSlot();
+        long room = room(inventory, PlayerInventory.MAIN_SIZE, output, consumed == held.getCount() ? heldSlot : -1);
+        long overflow = Math.max(0, produced - room);
+        String mode = CompressyConfig.get().decompressOverflow;
+        if (overflow > 0) {
+            boolean fits = switch (mode) {
+                case CompressyConfig.OVERFLOW_ENDER_CHEST -> overflow <= room(player.getEnderChestInventory(),
+                    player.getEnderChestInventory().size(), output, -1);
+                case CompressyConfig.OVERFLOW_DROP -> overflow <= (long) MAX_DROPPED_STACKS * output.getMaxCount();
+                default -> false;
+            };
+            if (!fits) {
+                return Decompression.failed(Status.NO_ROOM);
+            }
+        }
+
+        // Room is guaranteed from here on
+        held.decrement(consumed);
+        long rest = insert(inventory, PlayerInventory.MAIN_SIZE, output, produced - overflow) + overflow;
+        if (rest > 0 && CompressyConfig.OVERFLOW_ENDER_CHEST.equals(mode)) {
+            Inventory enderChest = player.getEnderChestInventory();
+            rest = insert(enderChest, enderChest.size(), output, rest);
+        }
+        while (rest > 0) {
+            int size = (int) Math.min(rest, output.getMaxCount());
+            ItemEntity drop = new ItemEntity(player.getEntityWorld(), player.getX(), player.getY(), player.getZ(),
+                output.copyWithCount(size));
+            drop.setPickupDelay(0);
+            player.getEntityWorld().spawnEntity(drop);
+            rest -= size;
+        }
+        inventory.markDirty();
+        return new Decompression(Status.DONE, consumed, output, produced, overflow);
+    }
+
+    /**
+     * How many items like the prototype fit into the first slots of an inventory.
+     *
+     * @param freeSlot A slot to count as empty (-1 for none)
+     */
+    private static long room(Inventory inventory, int slots, ItemStack prototype, int freeSlot) {
+        long room = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            ItemStack stack = inventory.getStack(slot);
+            if (slot == freeSlot || stack.isEmpty()) {
+                room += Math.min(prototype.getMaxCount(), inventory.getMaxCount(prototype));
+            } else if (ItemStack.areItemsAndComponentsEqual(stack, prototype)) {
+                room += Math.max(0, stack.getMaxCount() - stack.getCount());
+            }
+        }
+        return room;
+    }
+
+    /**
+     * Insert count items like the prototype into the first slots, merging before using empty slots.
+     *
+     * @return What did not fit
+     */
+    private static long insert(Inventory inventory, int slots, ItemStack prototype, long count) {
+        for (int slot = 0; slot < slots && count > 0; slot++) {
+            ItemStack stack = inventory.getStack(slot);
+            if (!stack.isEmpty() && ItemStack.areItemsAndComponentsEqual(stack, prototype)) {
+                int moved = (int) Math.min(count, stack.getMaxCount() - stack.getCount());
+                if (moved > 0) {
+                    stack.increment(moved);
+                    count -= moved;
+                }
+            }
+        }
+        for (int slot = 0; slot < slots && count > 0; slot++) {
+            if (inventory.getStack(slot).isEmpty()) {
+                int size = (int) Math.min(count, Math.min(prototype.getMaxCount(), inventory.getMaxCount(prototype)));
+                inventory.setStack(slot, prototype.copyWithCount(size));
+                count -= size;
+            }
+        }
+        inventory.markDirty();
+        return count;
+    }
+
+    /**
+     * The block ID a stack can be compressed as, or null if it takes no part.
+     * Also used by the Compressor block, so both follow the same rules.
+     */
+    public static String getBlockId(ItemStack stack) {
+        CompressionComponent data = CompressionComponent.get(stack);
+        if (data != null) {
+            boolean usable = CompressedStacks.resolveItem(data.block(), null) != null
+                && !CompressionRules.isExcluded(data.block())
+                && !isRenamed(stack, data);
+            return usable ? data.block() : null;
+        }
+        if (!stack.getComponentChanges().isEmpty() || !CompressionRules.isCompressible(stack.getItem())) {
+            return null;
+        }
+        Block block = Block.getBlockFromItem(stack.getItem());
+        return block == Blocks.AIR ? null : Registries.BLOCK.getId(block).toString();
+    }
+
+    /**
+     * Whether a compressed stack carries a name of its own (anvil) - refolding it would lose the name.
+     */
+    private static boolean isRenamed(ItemStack stack, CompressionComponent data) {
+        Text customName = stack.get(DataComponentTypes.CUSTOM_NAME);
+        return customName != null && !customName.getString().equals(CompressedItemText.getName(data).getString());
+    }
+
+    /**
+     * Add the stacks for count blocks of a tier.
+     *
+     * @return false if they would take more than the available slots (nothing is added then)
+     */
+    private static boolean addStacks(List<ItemStack> result, Inventory inventory, String blockId, int tier, long count,
+                                     Item baseItem, int available) {
+        if (count <= 0) {
+            return true;
+        }
+        ItemStack prototype = tier == 0
+            ? CompressedStacks.createBase(blockId, 1, baseItem)
+            : CompressedStacks.create(blockId, tier, 1, baseItem);
+        int maxCount = Math.min(prototype.getMaxCount(), inventory.getMaxCount(prototype));
+        if ((count + maxCount - 1) / maxCount > available - result.size()) {
+            return false;
+        }
+        while (count > 0) {
+            int size = (int) Math.min(count, maxCount);
+            result.add(prototype.copyWithCount(size));
+            count -= size;
+        }
+        return true;
+    }
+}
@@ -9,6 +9,10 @@ import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
 import com.compressy.CompressyMod;
+import com.compressy.component.CompressionComponent;
+import com.compressy.recipe.CraftingGridClassifier;
+import com.compressy.recipe.CraftingGridHolder;
+import com.compressy.recipe.MultiTierDecompression;
 
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.inventory.RecipeInputInventory;
@@ -26,6 +30,9 @@ import net.minecraft.screen.slot.CraftingResultSlot;
  * THE FIX:
  * Intercept onTakeItem and manually consume the compressed block input when
  * the player is taking a decompression result.
+ * 
+ * A multi-tier result (see {@link MultiTierDecompression}) also hands out the output
+ * that did not fit into the result slot.
  */
 @Mixin(CraftingResultSlot.class)
 public class CraftingResultSlotMixin {
@@ -75,6 +82,12 @@ public class CraftingResultSlotMixin {
             return;
         }
         
+        // What the result slot showed - read BEFORE consuming, which re-classifies the grid
+        CraftingGridClassifier.Classification classification = null;
+        if (player.currentScreenHandler instanceof CraftingGridHolder holder) {
+            classification = holder.compressy$getClassifier().last();
+        }
+        
         // String gridType = input.size() == 4 ? "2x2 player inventory" : "3x3 crafting table";
         // CompressyMod.LOGGER.info("CraftingResultSlotMixin: Handling decompression in {} for level {} block (stack size: {})", 
         //     gridType, compressionLevel, compressedBlock.getCount());
@@ -93,6 +106,12 @@ public class CraftingResultSlotMixin {
         // Mark input as dirty to trigger onContentChanged for result recalculation
         input.markDirty();
         
+        // Multi-tier: the output beyond the result stack goes to the inventory (or is dropped)
+        if (classification != null && classification.kind() == CraftingGridClassifier.Kind.DECOMPRESS
+                && classification.remainder() > 0 && !player.getEntityWorld().isClient()) {
+            MultiTierDecompression.giveRemainder(player, classification.result(), classification.remainder());
+        }
+        
         // CompressyMod.LOGGER.info("CraftingResultSlotMixin: Consumed 1 compressed block from slot {} in {} (remaining: {})", 
         //     compressedSlotIndex, gridType, input.getStack(compressedSlotIndex).getCount());
         
@@ -104,17 +123,6 @@ public class CraftingResultSlotMixin {
     
     @Unique
     private int getCompressionLevel(ItemStack stack) {
-        if (stack.isEmpty()) {
-            return 0;
-        }
-        var customData = stack.get(net.minecraft.component.DataComponentTypes.CUSTOM_DATA);
-        if (customData == null) {
-            return 0;
-        }
-        var nbt = customData.copyNbt();
-        if (nbt == null) {
-            return 0;
-        }
-        return com.compressy.util.NbtHelper.getInt(nbt, "compressed_level", 0);
+        return CompressionComponent.getLevel(stack);
     }
 }
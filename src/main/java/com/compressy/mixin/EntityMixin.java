@@ -0,0 +1,28 @@
+package com.compressy.mixin;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import com.compressy.network.DisplayPreferences;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.server.network.ServerPlayerEntity;
+
+/**
+ * Per-player tracking filter for label and overlay entities.
+ * 
+ * The entity tracker only starts sending an entity to a player if canBeSpectated is true,
+ * so players who disabled a visual (see {@link DisplayPreferences}) never receive it.
+ */
+@Mixin(Entity.class)
+public class EntityMixin {
+    
+    @Inject(method = "canBeSpectated", at = @At("HEAD"), cancellable = true)
+    private void compressy$filterDisplays(ServerPlayerEntity spectator, CallbackInfoReturnable<Boolean> cir) {
+        if (!DisplayPreferences.canSee((Entity) (Object) this, spectator)) {
+            cir.setReturnValue(false);
+        }
+    }
+}
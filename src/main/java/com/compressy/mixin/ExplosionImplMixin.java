@@ -0,0 +1,35 @@
+package com.compressy.mixin;
+
+import java.util.List;
+
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import com.compressy.world.BulkRemovals;
+
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.explosion.ExplosionImpl;
+
+/**
+ * Hands the blocks an explosion is about to destroy to {@link BulkRemovals} in one batch.
+ *
+ * Compressed blocks are taken out of the list, so vanilla does not drop them as
+ * plain blocks; {@link BulkRemovals} applies the explosion's drop rules itself.
+ */
+@Mixin(ExplosionImpl.class)
+public class ExplosionImplMixin {
+
+    @Shadow
+    @Final
+    private ServerWorld world;
+
+    @Inject(method = "destroyBlocks", at = @At("HEAD"))
+    private void compressy$destroyCompressedBlocks(List<BlockPos> positions, CallbackInfo ci) {
+        BulkRemovals.onExplosion(world, (ExplosionImpl) (Object) this, positions);
+    }
+}
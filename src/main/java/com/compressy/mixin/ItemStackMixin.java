@@ -0,0 +1,34 @@
+package com.compressy.mixin;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import com.compressy.CompressyMod;
+import com.compressy.component.CompressionComponent;
+import com.compressy.item.CompressedItemText;
+
+import net.minecraft.item.ItemStack;
+import net.minecraft.text.Text;
+
+/**
+ * Mixin to name compressed stacks from their compression data.
+ * 
+ * Stacks no longer carry a CUSTOM_NAME, so the name ("◆ Cobblestone IV") is
+ * generated here from the cached {@link CompressedItemText}.
+ * 
+ * Hooks getItemName() rather than getName(), so anvil renames (CUSTOM_NAME) still win.
+ */
+@Mixin(ItemStack.class)
+public class ItemStackMixin {
+    
+    @Inject(method = "getItemName", at = @At("HEAD"), cancellable = true)
+    private void compressy$compressedItemName(CallbackInfoReturnable<Text> cir) {
+        // Plain component read - no legacy upgrade from a getter that runs every frame
+        CompressionComponent data = ((ItemStack) (Object) this).get(CompressyMod.COMPRESSION_COMPONENT);
+        if (data != null) {
+            cir.setReturnValue(CompressedItemText.getName(data));
+        }
+    }
+}
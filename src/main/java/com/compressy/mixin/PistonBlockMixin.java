@@ -0,0 +1,34 @@
+package com.compressy.mixin;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import com.compressy.world.CompressedBlockStorage;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.block.PistonBlock;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Direction;
+import net.minecraft.world.World;
+
+/**
+ * Compressed blocks cannot be pushed or pulled by pistons (like obsidian).
+ *
+ * Their data is stored by position, so a moved block would leave its tier behind
+ * for whatever block ends up in its old place.
+ */
+@Mixin(PistonBlock.class)
+public class PistonBlockMixin {
+
+    @Inject(method = "isMovable", at = @At("HEAD"), cancellable = true)
+    private static void compressy$keepCompressedBlocks(BlockState state, World world, BlockPos pos, Direction direction,
+                                                      boolean canBreak, Direction pistonDir,
+                                                      CallbackInfoReturnable<Boolean> cir) {
+        if (world instanceof ServerWorld serverWorld && CompressedBlockStorage.get(serverWorld, pos) != null) {
+            cir.setReturnValue(false);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.compressy.mixin;
+
+import java.util.List;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+
+import com.compressy.client.ClientCompressedBlocks;
+import com.compressy.client.TintingVertexConsumer;
+import com.compressy.config.CompressyConfig;
+import com.llamalad7.mixinextras.injector.wrapoperation.Operation;
+import com.llamalad7.mixinextras.injector.wrapoperation.WrapOperation;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.client.render.VertexConsumer;
+import net.minecraft.client.render.block.BlockRenderManager;
+import net.minecraft.client.render.chunk.SectionBuilder;
+import net.minecraft.client.render.model.BlockModelPart;
+import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.BlockRenderView;
+
+/**
+ * Bakes the tier darkening of placed compressed blocks into the chunk mesh.
+ * 
+ * HOW IT WORKS:
+ * - Wraps the per-block render call while a chunk section is meshed
+ * - Compressed blocks of tier 2+ get their quads' colour multiplied by the tier tint
+ * - Costs nothing at render time and needs no overlay entities
+ * 
+ * Optional (require = 0): renderers that replace chunk meshing never call this.
+ * {@link ClientCompressedBlocks} notices, logs it and falls back to drawing overlays.
+ */
+@Mixin(SectionBuilder.class)
+public class SectionBuilderMixin {
+    
+    @WrapOperation(
+        method = "build",
+        at = @At(
+            value = "INVOKE",
+            target = "Lnet/minecraft/client/render/block/BlockRenderManager;renderBlock(Lnet/minecraft/block/BlockState;Lnet/minecraft/util/math/BlockPos;Lnet/minecraft/world/BlockRenderView;Lnet/minecraft/client/util/math/MatrixStack;Lnet/minecraft/client/render/VertexConsumer;ZLjava/util/List;)V"
+        ),
+        require = 0
+    )
+    private void compressy$tintCompressedBlocks(
+        BlockRenderManager manager,
+        BlockState state,
+        BlockPos pos,
+        BlockRenderView world,
+        MatrixStack matrices,
+        VertexConsumer vertexConsumer,
+        boolean cull,
+        List<BlockModelPart> parts,
+        Operation<Void> original
+    ) {
+        ClientCompressedBlocks.onMeshed();
+        int level = ClientCompressedBlocks.getLevel(pos);
+        if (level > 1 && CompressyConfig.get().showDarkeningOverlay) {
+            vertexConsumer = new TintingVertexConsumer(vertexConsumer, ClientCompressedBlocks.getTint(level));
+        }
+        original.call(manager, state, pos, world, matrices, vertexConsumer, cull, parts);
+    }
+}
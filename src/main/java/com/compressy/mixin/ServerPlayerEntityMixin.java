@@ -0,0 +1,28 @@
+package com.compressy.mixin;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import com.compressy.item.CompressedStacks;
+
+import net.minecraft.screen.ScreenHandler;
+import net.minecraft.server.network.ServerPlayerEntity;
+
+/**
+ * Mixin to normalize compressed stacks whenever a player opens a screen.
+ * 
+ * HOW IT WORKS:
+ * - onScreenHandlerOpened runs for every opened container (chests, shulkers, ender chest...)
+ *   and for the player's own inventory when they join
+ * - At HEAD nothing has been sent yet, so the player only ever sees canonical stacks
+ */
+@Mixin(ServerPlayerEntity.class)
+public class ServerPlayerEntityMixin {
+    
+    @Inject(method = "onScreenHandlerOpened", at = @At("HEAD"))
+    private void compressy$normalizeOpenedScreen(ScreenHandler screenHandler, CallbackInfo ci) {
+        CompressedStacks.normalize(screenHandler);
+    }
+}
@@ -0,0 +1,29 @@
+package com.compressy.mixin;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import com.compressy.world.BulkRemovals;
+import com.compressy.world.DisplayVisibility;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+
+/**
+ * Tells {@link DisplayVisibility} about every block change, so the labels and overlays
+ * of neighbouring compressed blocks follow what can be seen, and {@link BulkRemovals}
+ * so compressed blocks replaced by /fill, fluids or mods lose their data.
+ */
+@Mixin(ServerWorld.class)
+public class ServerWorldMixin {
+    
+    @Inject(method = "onBlockStateChanged", at = @At("TAIL"))
+    private void compressy$onBlockStateChanged(BlockPos pos, BlockState oldState, BlockState newState, CallbackInfo ci) {
+        ServerWorld world = (ServerWorld) (Object) this;
+        BulkRemovals.onBlockChanged(world, pos, newState);
+        DisplayVisibility.onBlockChanged(world, pos);
+    }
+}
@@ -0,0 +1,30 @@
+package com.compressy.mixin;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import com.compressy.world.BulkRemovals;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+/**
+ * Blocks broken with drops outside of the player break event (quarries, vein miners, ...)
+ * drop the compressed item instead of a single plain block (see {@link BulkRemovals}).
+ */
+@Mixin(World.class)
+public class WorldMixin {
+
+    @Inject(method = "breakBlock(Lnet/minecraft/util/math/BlockPos;ZLnet/minecraft/entity/Entity;I)Z",
+            at = @At("HEAD"), cancellable = true)
+    private void compressy$breakCompressedBlock(BlockPos pos, boolean drop, Entity breakingEntity, int maxUpdateDepth,
+                                                CallbackInfoReturnable<Boolean> cir) {
+        if (drop && (Object) this instanceof ServerWorld world && BulkRemovals.onBreakBlock(world, pos)) {
+            cir.setReturnValue(true);
+        }
+    }
+}
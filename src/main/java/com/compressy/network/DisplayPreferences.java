@@ -0,0 +1,93 @@
+package com.compressy.network;
+
+import com.compressy.CompressyMod;
+import com.compressy.CompressyBlockHandler;
+
+import net.fabricmc.fabric.api.networking.v1.PayloadTypeRegistry;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.decoration.DisplayEntity;
+import net.minecraft.network.RegistryByteBuf;
+import net.minecraft.network.codec.PacketCodec;
+import net.minecraft.network.codec.PacketCodecs;
+import net.minecraft.network.packet.CustomPayload;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Identifier;
+
+/**
+ * Which compressy visuals a player wants to receive (sent by modded clients on join
+ * and whenever their display settings change).
+ *
+ * WHY:
+ * Hiding labels on the client still meant the server sent every label and overlay entity.
+ * (Command tags are not synced to clients either, so the client could not reliably tell them apart.)
+ *
+ * HOW IT WORKS:
+ * - The client sends its showRomanNumerals / showDarkeningOverlay settings as this payload
+ * - The server stores them on the player (attachment)
+ * - {@code EntityMixin} refuses to START tracking a label/overlay entity for a player
+ *   who disabled it, so the entity is never sent at all
+ * - When the preference changes, the player's tracked entities are re-evaluated once
+ *
+ * Players without the mod never send it and receive everything (the default).
+ */
+public record DisplayPreferences(boolean showLabels, boolean showOverlays) implements CustomPayload {
+
+    public static final DisplayPreferences DEFAULT = new DisplayPreferences(true, true);
+
+    public static final CustomPayload.Id<DisplayPreferences> ID =
+        new CustomPayload.Id<>(Identifier.of(CompressyMod.MOD_ID, "display_preferences"));
+
+    public static final PacketCodec<RegistryByteBuf, DisplayPreferences> PACKET_CODEC = PacketCodec.tuple(
+        PacketCodecs.BOOLEAN, DisplayPreferences::showLabels,
+        PacketCodecs.BOOLEAN, DisplayPreferences::showOverlays,
+        DisplayPreferences::new
+    );
+
+    @Override
+    public Id<? extends CustomPayload> getId() {
+        return ID;
+    }
+
+    /**
+     * Register the payload and store what players send.
+     */
+    public static void register() {
+        PayloadTypeRegistry.playC2S().register(ID, PACKET_CODEC);
+        ServerPlayNetworking.registerGlobalReceiver(ID, (payload, context) -> {
+            ServerPlayerEntity player = context.player();
+            if (payload.equals(get(player))) {
+                return;
+            }
+            player.setAttached(CompressyMod.DISPLAY_PREFERENCES, payload);
+            // Start/stop tracking the entities this player is already near
+            ((ServerWorld) player.getEntityWorld()).getChunkManager().updatePosition(player);
+        });
+    }
+
+    /**
+     * Get a player's preferences (everything shown unless their client said otherwise).
+     */
+    public static DisplayPreferences get(ServerPlayerEntity player) {
+        DisplayPreferences preferences = player.getAttached(CompressyMod.DISPLAY_PREFERENCES);
+        return preferences != null ? preferences : DEFAULT;
+    }
+
+    /**
+     * Check if an entity may be sent to a player.
+     */
+    public static boolean canSee(Entity entity, ServerPlayerEntity player) {
+        if (!(entity instanceof DisplayEntity)) {
+            return true;
+        }
+        DisplayPreferences preferences = player.getAttached(CompressyMod.DISPLAY_PREFERENCES);
+        if (preferences == null || preferences.equals(DEFAULT)) {
+            return true; // Fast path: nothing hidden
+        }
+        if (entity instanceof DisplayEntity.TextDisplayEntity) {
+            return preferences.showLabels || !entity.getCommandTags().contains(CompressyBlockHandler.LABEL_TAG);
+        }
+        return preferences.showOverlays || !entity.getCommandTags().contains(CompressyBlockHandler.OVERLAY_TAG);
+    }
+}
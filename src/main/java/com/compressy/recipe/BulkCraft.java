@@ -0,0 +1,235 @@
+package com.compressy.recipe;
+
+import java.util.Objects;
+
+import com.compressy.component.CompressionComponent;
+
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.inventory.RecipeInputInventory;
+import net.minecraft.item.ItemStack;
+import net.minecraft.recipe.RecipeUnlocker;
+import net.minecraft.screen.ScreenHandler;
+import net.minecraft.screen.slot.Slot;
+
+/**
+ * Shift-click on the result slot as ONE transaction, for compression and decompression.
+ *
+ * WHY:
+ * Vanilla's shift-click crafts one result at a time: take the result, consume the inputs,
+ * re-run onContentChanged (our classifier or CompressionRecipe.matches), move the result,
+ * repeat. Decompressing 64 tier-5 blocks went through that loop 64 times.
+ *
+ * HOW IT WORKS:
+ * - crafts = min(crafts the grid can pay for, crafts whose output fits the inventory)
+ * - The whole output is inserted into the inventory in one pass (vanilla order: merge into
+ *   matching stacks first, then empty slots, hotbar first)
+ * - Every input slot is decremented by crafts in place, then the grid is re-evaluated ONCE
+ * - Crafting side effects run once for the whole transaction, like vanilla's
+ *   {@code CraftingResultSlot.onCrafted}: {@link ItemStack#onCraftByPlayer} with the total
+ *   (CRAFTED stat, item hooks) and, for compression, one recipe unlock (RECIPE_CRAFTED criteria)
+ *
+ * DUPE-SAFETY:
+ * Inputs are consumed for exactly as many crafts as were inserted, and crafts never exceeds
+ * what fits - nothing is ever inserted that was not paid for. Grids with recipe remainders
+ * (never the case for compressible full cubes) are left to vanilla.
+ *
+ * Server side only - the client predicts with vanilla's loop and is corrected by the sync.
+ * Multi-tier results shown in the result slot ("always", see {@link MultiTierDecompression})
+ * are left to vanilla's loop. In "sneak" mode a shift-click decompresses every block as deep
+ * as its output fits instead (the shift key is sent with the click).
+ */
+public class BulkCraft {
+
+    /**
+     * Shift-click the result slot (slot 0) of a crafting screen.
+     *
+     * @param inventoryStart First player inventory slot of the handler
+     * @param inventoryEnd   End (exclusive) of the player inventory slots
+     * @return The moved result (one craft's worth, like vanilla), EMPTY if nothing fit,
+     *         or null if the grid is not ours and vanilla should handle it
+     */
+    public static ItemStack quickMove(ScreenHandler handler, CraftingGridClassifier classifier, PlayerEntity player,
+                                      int inventoryStart, int inventoryEnd) {
+        Slot resultSlot = handler.getSlot(0);
+        ItemStack result = resultSlot.getStack();
+        if (result.isEmpty() || !(handler.getSlot(1).inventory instanceof RecipeInputInventory grid)) {
+            return null;
+        }
+
+        CraftingGridClassifier.Classification classification = classifier.last();
+        if (classification.kind() == CraftingGridClassifier.Kind.DECOMPRESS && classification.remainder() == 0
+                && MultiTierDecompression.isOnShiftClick()) {
+            ItemStack moved = quickMoveDeep(handler, grid, player);
+            if (moved != null) {
+                return moved;
+            }
+        }
+
+        int available = availableCrafts(grid, classifier, result);
+        if (available <= 0) {
+            return null;
+        }
+
+        int crafts = Math.min(available, capacity(handler, result, inventoryStart, inventoryEnd) / result.getCount());
+        if (crafts <= 0) {
+            return ItemStack.EMPTY; // Inventory full - same as vanilla
+        }
+
+        ItemStack moved = result.copy();
+        ItemStack output = result.copyWithCount(result.getCount() * crafts);
+        output.onCraftByPlayer(player, output.getCount());
+        insert(handler, output, inventoryStart, inventoryEnd);
+
+        // Unlock with the inputs still in the grid - the criteria check what was used.
+        // Decompression has no recipe entry (the classifier owns the result), only compression unlocks
+        if (classification.kind() == CraftingGridClassifier.Kind.PASS
+                && resultSlot.inventory instanceof RecipeUnlocker unlocker) {
+            unlocker.unlockLastRecipe(player, grid.getHeldStacks());
+        }
+
+        // Pay for exactly the inserted crafts, then re-evaluate the grid once
+        for (int i = 0; i < grid.size(); i++) {
+            ItemStack input = grid.getStack(i);
+            if (!input.isEmpty()) {
+                input.decrement(crafts);
+            }
+        }
+        grid.markDirty();
+        handler.onContentChanged(grid);
+        return moved;
+    }
+
+    /**
+     * Decompress the grid's compressed stack block by block, each as deep as its output fits
+     * into the inventory (planned again per block, as the inventory fills up).
+     *
+     * @return EMPTY when done (ends vanilla's loop - the transaction is complete), or null if
+     *         not even the first block goes deeper than one tier (plain bulk decompression then)
+     */
+    private static ItemStack quickMoveDeep(ScreenHandler handler, RecipeInputInventory grid, PlayerEntity player) {
+        ItemStack input = ItemStack.EMPTY;
+        for (int i = 0; i < grid.size() && input.isEmpty(); i++) {
+            input = grid.getStack(i);
+        }
+        CompressionComponent compressed = CompressionComponent.get(input);
+        if (compressed == null || hasRemainder(input)) {
+            return null;
+        }
+
+        ItemStack crafted = null;
+        int total = 0;
+        int crafts = 0;
+        while (crafts < input.getCount()) {
+            MultiTierDecompression.Plan plan = MultiTierDecompression.plan(compressed, input.getItem(), player, false);
+            if (plan == null) {
+                break; // Not even two tiers fit anymore
+            }
+            // Room was checked by the plan - everything goes into the inventory
+            int count = plan.result().getCount() + plan.remainder();
+            MultiTierDecompression.giveRemainder(player, plan.result(), count);
+            if (crafted == null) {
+                crafted = plan.result();
+            }
+            total += count;
+            crafts++;
+        }
+        if (crafted == null) {
+            return null;
+        }
+
+        crafted.copy().onCraftByPlayer(player, total);
+        input.decrement(crafts);
+        grid.markDirty();
+        handler.onContentChanged(grid);
+        return ItemStack.EMPTY;
+    }
+
+    /**
+     * How many times the grid can pay for the result, or 0 if it is not one of our crafts.
+     */
+    private static int availableCrafts(RecipeInputInventory grid, CraftingGridClassifier classifier, ItemStack result) {
+        CraftingGridClassifier.Classification classification = classifier.last();
+        if (classification.kind() == CraftingGridClassifier.Kind.DECOMPRESS) {
+            // Exactly one compressed stack - one craft per block (multi-tier results: vanilla loop)
+            if (classification.remainder() > 0 || !ItemStack.areEqual(result, classification.result())) {
+                return 0;
+            }
+            for (int i = 0; i < grid.size(); i++) {
+                ItemStack input = grid.getStack(i);
+                if (!input.isEmpty()) {
+                    return hasRemainder(input) ? 0 : input.getCount();
+                }
+            }
+            return 0;
+        }
+
+        // Compression: 9 identical stacks and a result one tier higher (from CompressionRecipe)
+        CompressionComponent produced = CompressionComponent.get(result);
+        if (classification.kind() != CraftingGridClassifier.Kind.PASS || produced == null || grid.size() != 9) {
+            return 0;
+        }
+        ItemStack first = grid.getStack(0);
+        CompressionComponent consumed = CompressionComponent.get(first);
+        if (first.isEmpty() || hasRemainder(first) || produced.level() != (consumed == null ? 1 : consumed.level() + 1)) {
+            return 0;
+        }
+        int crafts = first.getCount();
+        for (int i = 1; i < 9; i++) {
+            ItemStack input = grid.getStack(i);
+            if (input.isEmpty() || input.getItem() != first.getItem()
+                    || !Objects.equals(CompressionComponent.get(input), consumed)) {
+                return 0;
+            }
+            crafts = Math.min(crafts, input.getCount());
+        }
+        return crafts;
+    }
+
+    private static boolean hasRemainder(ItemStack stack) {
+        return !stack.getItem().getRecipeRemainder().isEmpty();
+    }
+
+    /**
+     * How many items like the result fit into the inventory slots.
+     */
+    private static int capacity(ScreenHandler handler, ItemStack result, int start, int end) {
+        int capacity = 0;
+        for (int i = start; i < end; i++) {
+            Slot slot = handler.getSlot(i);
+            ItemStack stack = slot.getStack();
+            int max = slot.getMaxItemCount(result);
+            if (stack.isEmpty()) {
+                capacity += slot.canInsert(result) ? max : 0;
+            } else if (ItemStack.areItemsAndComponentsEqual(stack, result)) {
+                capacity += Math.max(0, max - stack.getCount());
+            }
+        }
+        return capacity;
+    }
+
+    /**
+     * Insert in vanilla's order (from the end: hotbar first), merging before using empty slots.
+     * The caller made sure everything fits.
+     */
+    private static void insert(ScreenHandler handler, ItemStack stack, int start, int end) {
+        for (int i = end - 1; i >= start && !stack.isEmpty(); i--) {
+            Slot slot = handler.getSlot(i);
+            ItemStack existing = slot.getStack();
+            if (!existing.isEmpty() && ItemStack.areItemsAndComponentsEqual(existing, stack)) {
+                int moved = Math.min(stack.getCount(), slot.getMaxItemCount(stack) - existing.getCount());
+                if (moved > 0) {
+                    existing.increment(moved);
+                    stack.decrement(moved);
+                    slot.markDirty();
+                }
+            }
+        }
+        for (int i = end - 1; i >= start && !stack.isEmpty(); i--) {
+            Slot slot = handler.getSlot(i);
+            if (slot.getStack().isEmpty() && slot.canInsert(stack)) {
+                int moved = Math.min(stack.getCount(), slot.getMaxItemCount(stack));
+                slot.setStack(stack.split(moved));
+            }
+        }
+    }
+}
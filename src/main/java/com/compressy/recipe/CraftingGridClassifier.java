@@ -0,0 +1,154 @@
+package com.compressy.recipe;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import com.compressy.component.CompressionComponent;
+
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.inventory.RecipeInputInventory;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+
+/**
+ * Classifies a crafting grid ONCE per change, for the crafting screen mixins.
+ *
+ * WHY:
+ * The 3x3 and 2x2 mixins used to scan the grid at HEAD and again at TAIL of
+ * onContentChanged, re-validating the compression pattern both times and possibly
+ * writing the result slot twice (two slot update packets per change).
+ *
+ * HOW IT WORKS:
+ * - One pass over the grid builds a fingerprint: (item, compression data) per slot
+ * - Counts are NOT part of it - they never change what the grid crafts
+ * - Same fingerprint as last time -> the previous classification is returned as-is
+ * - Otherwise the grid is classified in that same pass
+ * - Multi-tier decompression shown in the result slot (see {@link MultiTierDecompression})
+ *   depends on the player's inventory as well, so it is never served from the previous answer
+ *
+ * One instance per screen handler (grids are not shared).
+ */
+public class CraftingGridClassifier {
+
+    public enum Kind {
+        /** Nothing for us to do - let vanilla (and CompressionRecipe) handle the grid */
+        PASS,
+        /** Compressed blocks in an invalid pattern - the result must be empty */
+        BLOCK,
+        /** Exactly one compressed stack and nothing else - decompress it */
+        DECOMPRESS
+    }
+
+    /**
+     * @param kind      What the grid is
+     * @param result    The decompression result for {@link Kind#DECOMPRESS}, otherwise EMPTY.
+     *                  Shared between calls - callers must copy it before handing it out.
+     * @param remainder Output beyond the result stack (multi-tier decompression), handed out on take
+     */
+    public record Classification(Kind kind, ItemStack result, int remainder) {
+        static final Classification PASS = new Classification(Kind.PASS, ItemStack.EMPTY, 0);
+        static final Classification BLOCK = new Classification(Kind.BLOCK, ItemStack.EMPTY, 0);
+    }
+
+    private Item[] lastItems = new Item[0];
+    private CompressionComponent[] lastData = new CompressionComponent[0];
+    private boolean lastMultiTier;
+    private Classification last = Classification.PASS;
+
+    /**
+     * Classify the grid, reusing the previous answer if only counts changed.
+     *
+     * @param player The player using the grid (null: never multi-tier)
+     */
+    public Classification classify(RecipeInputInventory grid, PlayerEntity player) {
+        boolean multiTier = player != null && MultiTierDecompression.isShownInResult();
+        int size = grid.size();
+        Item[] items = new Item[size];
+        CompressionComponent[] data = new CompressionComponent[size];
+
+        int filledSlots = 0;
+        int compressedSlots = 0;
+        int compressedIndex = -1;
+        for (int i = 0; i < size; i++) {
+            ItemStack stack = grid.getStack(i);
+            if (stack.isEmpty()) {
+                continue;
+            }
+            filledSlots++;
+            items[i] = stack.getItem();
+            data[i] = CompressionComponent.get(stack);
+            if (data[i] != null) {
+                compressedSlots++;
+                if (compressedIndex < 0) {
+                    compressedIndex = i;
+                }
+            }
+        }
+
+        if (!multiTier && !lastMultiTier && Arrays.equals(items, lastItems) && Arrays.equals(data, lastData)) {
+            return last;
+        }
+
+        lastItems = items;
+        lastData = data;
+        lastMultiTier = multiTier;
+        last = classify(items, data, filledSlots, compressedSlots, compressedIndex, multiTier ? player : null);
+        return last;
+    }
+
+    /**
+     * The answer of the last call (what the result slot currently shows).
+     */
+    public Classification last() {
+        return last;
+    }
+
+    private static Classification classify(Item[] items, CompressionComponent[] data,
+                                           int filledSlots, int compressedSlots, int compressedIndex,
+                                           PlayerEntity multiTierPlayer) {
+        // No compressed blocks - DO NOT INTERFERE AT ALL
+        if (compressedSlots == 0) {
+            return Classification.PASS;
+        }
+
+        // Exactly one compressed stack and nothing else - decompression
+        if (compressedSlots == 1 && filledSlots == 1) {
+            CompressionComponent compressed = data[compressedIndex];
+            if (multiTierPlayer != null) {
+                MultiTierDecompression.Plan plan = MultiTierDecompression.plan(compressed, items[compressedIndex], multiTierPlayer);
+                if (plan != null) {
+                    return new Classification(Kind.DECOMPRESS, plan.result(), plan.remainder());
+                }
+            }
+            return new Classification(Kind.DECOMPRESS,
+                DecompressionTable.get(compressed, items[compressedIndex]), 0);
+        }
+
+        // 9 identical compressed blocks - let CompressionRecipe handle it
+        if (isValidCompressionPattern(items, data, filledSlots)) {
+            return Classification.PASS;
+        }
+
+        // Any other mix with compressed blocks - block vanilla recipes
+        return Classification.BLOCK;
+    }
+
+    /**
+     * A valid compression pattern needs all 9 slots of a 3x3 grid filled with
+     * the same item and the same compression data, below the max level.
+     */
+    private static boolean isValidCompressionPattern(Item[] items, CompressionComponent[] data, int filledSlots) {
+        if (items.length != 9 || filledSlots != 9) {
+            return false;
+        }
+        if (data[0] != null && data[0].level() >= CompressionComponent.MAX_LEVEL) {
+            return false; // Max level reached
+        }
+        for (int i = 1; i < 9; i++) {
+            if (items[i] != items[0] || !Objects.equals(data[i], data[0])) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,10 @@
+package com.compressy.recipe;
+
+/**
+ * Implemented by the crafting screen handlers (through their mixins), so the result slot
+ * can see how the grid was classified when the result is taken.
+ */
+public interface CraftingGridHolder {
+
+    CraftingGridClassifier compressy$getClassifier();
+}
@@ -0,0 +1,135 @@
+package com.compressy.recipe;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.compressy.CompressyMod;
+import com.compressy.component.CompressionComponent;
+import com.compressy.config.CompressyConfig;
+import com.compressy.item.CompressedStacks;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.minecraft.block.Block;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.registry.Registries;
+import net.minecraft.registry.entry.RegistryEntry;
+
+/**
+ * Precomputed decompression results: (block, tier) -> 9x (block, tier - 1).
+ *
+ * WHY:
+ * Decompression output depends on nothing but the compressed block and its tier,
+ * yet it used to be rebuilt (new recipe, fake input, craft) on every grid change.
+ *
+ * HOW IT WORKS:
+ * - Filled lazily on first use, and warmed at server start for every block in
+ *   the {@code compressy:compressible} tag, tiers 1 to WARM_TIERS
+ * - Shared by DecompressionRecipe and both crafting grid mixins
+ * - Rebuilt after data pack reloads and whenever a new config snapshot is published
+ * - Bounded: the least recently used result is evicted once MAX_ENTRIES is reached,
+ *   so stacks with made-up block IDs or tiers cannot grow it without limit
+ *
+ * Returned stacks are shared - callers copy them before handing them out.
+ */
+public class DecompressionTable {
+
+    // The tiers players actually decompress most (9 / 81 / 729 blocks)
+    private static final int WARM_TIERS = 3;
+
+    // Room for the warmed tiers of a large compressible tag, plus what players use beyond that
+    private static final int MAX_ENTRIES = 4096;
+
+    private static final Map<CompressionComponent, ItemStack> RESULTS =
+        new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CompressionComponent, ItemStack> eldest) {
+                return size() > MAX_ENTRIES;
+            }
+        };
+
+    /**
+     * Warm the table at server start and rebuild it when tags may have changed.
+     */
+    public static void register() {
+        ServerLifecycleEvents.SERVER_STARTED.register(server -> warm());
+        ServerLifecycleEvents.END_DATA_PACK_RELOAD.register((server, resourceManager, success) -> {
+            invalidate();
+            warm();
+        });
+        // Cleared only - refilled lazily, the new config may be published off-thread
+        CompressyConfig.onChange(config -> invalidate());
+    }
+
+    /**
+     * Get the decompression result for a compressed stack's data.
+     *
+     * @param fallback Item to use if the block ID cannot be resolved (never cached)
+     * @return The shared result stack (9 items) - copy before use
+     */
+    public static synchronized ItemStack get(CompressionComponent compressed, Item fallback) {
+        ItemStack result = RESULTS.get(compressed);
+        if (result != null) {
+            return result;
+        }
+
+        result = compute(compressed);
+        if (result == null) {
+            // Unresolvable block - depends on the caller's fallback
+            return compressed.level() == 1
+                ? new ItemStack(fallback, 9)
+                : CompressedStacks.create(compressed.block(), compressed.level() - 1, 9, fallback);
+        }
+        RESULTS.put(compressed, result);
+        return result;
+    }
+
+    /**
+     * Drop every precomputed result.
+     */
+    public static synchronized void invalidate() {
+        RESULTS.clear();
+    }
+
+    public static synchronized int size() {
+        return RESULTS.size();
+    }
+
+    /**
+     * Precompute the common tiers of every block in the compressible tag.
+     */
+    private static void warm() {
+        long start = System.nanoTime();
+        for (RegistryEntry<Block> entry : Registries.BLOCK.iterateEntries(CompressyMod.COMPRESSIBLE_TAG)) {
+            Block block = entry.value();
+            if (block.asItem() == Items.AIR) {
+                continue; // Can't be held, so can't be compressed
+            }
+            String blockId = Registries.BLOCK.getId(block).toString();
+            for (int level = 1; level <= WARM_TIERS; level++) {
+                get(new CompressionComponent(blockId, level), block.asItem());
+            }
+            if (size() >= MAX_ENTRIES) {
+                break; // Full - the rest is filled lazily (warming on would only evict)
+            }
+        }
+        CompressyMod.LOGGER.info("Precomputed {} decompression results in {} ms",
+            size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Build the result for (block, tier), or null if the block ID cannot be resolved.
+     */
+    private static ItemStack compute(CompressionComponent compressed) {
+        if (compressed.level() == 1) {
+            // 9 of the original block
+            Item item = CompressedStacks.resolveItem(compressed.block(), null);
+            return item == null ? null : new ItemStack(item, 9);
+        }
+        // 9 of the lower compression level
+        ItemStack prototype = CompressedStacks.buildPrototype(
+            new CompressionComponent(compressed.block(), compressed.level() - 1));
+        return prototype == null ? null : prototype.copyWithCount(9);
+    }
+}
@@ -0,0 +1,118 @@
+package com.compressy.recipe;
+
+import java.math.BigInteger;
+
+import com.compressy.component.CompressionComponent;
+import com.compressy.config.CompressyConfig;
+import com.compressy.item.CompressedStacks;
+import com.compressy.item.CompressionMath;
+
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.entity.player.PlayerInventory;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+
+/**
+ * Decompression down several tiers in ONE craft.
+ *
+ * WHY:
+ * A craft only went one tier down (tier N -> 9x tier N-1). Getting a tier-6 block back to
+ * raw blocks took six crafts and juggling the stacks in between.
+ *
+ * HOW IT WORKS:
+ * - Set by {@code crafting.multiTierDecompression}: off, on shift-click ("sneak"), or always
+ * - The target is the LOWEST tier whose output (9^(N - target), from the precomputed
+ *   powers in {@link CompressionMath}) fits into the player's free room
+ * - Output stacks are copies of the cached prototypes (see {@code CompressedStackCache})
+ *
+ * "always": the result slot shows one stack of the target tier; the rest (the remainder)
+ * is put into the inventory when the result is taken (see {@code CraftingResultSlotMixin}),
+ * and dropped if the inventory filled up in the meantime. Shift-clicking such a result
+ * uses vanilla's craft-by-craft loop, not {@link BulkCraft}.
+ *
+ * "sneak": the result slot shows the plain one-tier result. Shift-clicking it decompresses
+ * as deep as fits, in {@link BulkCraft}. The shift key comes with the click itself - the
+ * player's sneaking state is frozen while a screen is open, so it cannot be used.
+ */
+public class MultiTierDecompression {
+
+    /**
+     * @param result    The result slot stack
+     * @param remainder Output items beyond the result stack, handed out on take
+     */
+    public record Plan(ItemStack result, int remainder) {
+    }
+
+    /**
+     * Whether the result slot shows multi-tier results ("always").
+     */
+    public static boolean isShownInResult() {
+        return CompressyConfig.MULTI_TIER_ALWAYS.equals(CompressyConfig.get().multiTierDecompression);
+    }
+
+    /**
+     * Whether shift-clicking a one-tier result decompresses as deep as fits ("sneak").
+     */
+    public static boolean isOnShiftClick() {
+        return CompressyConfig.MULTI_TIER_SNEAK.equals(CompressyConfig.get().multiTierDecompression);
+    }
+
+    /**
+     * Plan a multi-tier decompression of one compressed block shown in the result slot.
+     *
+     * @return The plan, or null if only one tier down fits (plain decompression)
+     */
+    public static Plan plan(CompressionComponent compressed, Item fallback, PlayerEntity player) {
+        return plan(compressed, fallback, player, true);
+    }
+
+    /**
+     * Plan a multi-tier decompression of one compressed block.
+     *
+     * @param resultSlot Whether the result slot holds one stack of the output (false: all of it
+     *                   goes straight into the inventory)
+     * @return The plan, or null if only one tier down fits (plain decompression)
+     */
+    public static Plan plan(CompressionComponent compressed, Item fallback, PlayerEntity player, boolean resultSlot) {
+        for (int target = 0; target < compressed.level() - 1; target++) {
+            ItemStack prototype = target == 0
+                ? CompressedStacks.createBase(compressed.block(), 1, fallback)
+                : CompressedStacks.create(compressed.block(), target, 1, fallback);
+            BigInteger total = CompressionMath.power(compressed.level() - target);
+            long room = (resultSlot ? prototype.getMaxCount() : 0) + room(player.getInventory(), prototype);
+            if (total.compareTo(BigInteger.valueOf(room)) <= 0) {
+                int count = total.intValue();
+                int shown = Math.min(count, prototype.getMaxCount());
+                return new Plan(prototype.copyWithCount(shown), count - shown);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Free room for items like the prototype in the main inventory.
+     */
+    private static long room(PlayerInventory inventory, ItemStack prototype) {
+        long room = 0;
+        for (int slot = 0; slot < PlayerInventory.MAIN_SIZE; slot++) {
+            ItemStack stack = inventory.getStack(slot);
+            if (stack.isEmpty()) {
+                room += prototype.getMaxCount();
+            } else if (ItemStack.areItemsAndComponentsEqual(stack, prototype)) {
+                room += Math.max(0, stack.getMaxCount() - stack.getCount());
+            }
+        }
+        return room;
+    }
+
+    /**
+     * Hand out the remainder of a taken multi-tier result: into the inventory, or dropped.
+     */
+    public static void giveRemainder(PlayerEntity player, ItemStack prototype, int remainder) {
+        while (remainder > 0) {
+            int size = Math.min(remainder, prototype.getMaxCount());
+            player.getInventory().offerOrDrop(prototype.copyWithCount(size));
+            remainder -= size;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.compressy.world;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.compressy.CompressyMod;
+import com.compressy.config.CompressyConfig;
+import com.compressy.item.CompressedStacks;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.registry.Registries;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.WorldEvents;
+import net.minecraft.world.explosion.Explosion;
+
+/**
+ * Compressed blocks removed in bulk - explosions, quarries, /fill, fluids, other mods.
+ *
+ * WHY:
+ * Only the single-block player break event used to handle compressed blocks.
+ * Everything else destroyed them as plain blocks: the compression was lost
+ * and the data and display entities stayed behind.
+ *
+ * HOW IT WORKS:
+ * - Explosions ({@code ExplosionImplMixin}): the blast's block list is resolved against the
+ *   index (one bit test per block), the compressed ones are taken out of the list,
+ *   removed from chunk data in ONE update per chunk, and dropped as compressed items
+ *   in one pass (equal stacks merged, vanilla explosion decay applied)
+ * - Block breaks with drops ({@code WorldMixin}, e.g. quarries): drop the compressed item
+ *   instead of the plain block
+ * - Any other change of a compressed block into something else ({@code ServerWorldMixin}):
+ *   queued, then removed in one batch per chunk at the end of the world tick (no drops,
+ *   like vanilla /setblock)
+ */
+public class BulkRemovals {
+
+    /**
+     * Flush queued removals at the end of each world tick.
+     */
+    public static void register() {
+        ServerTickEvents.END_WORLD_TICK.register(world -> {
+            DisplayRegistry registry = world.getAttached(CompressyMod.DISPLAY_REGISTRY);
+            if (registry == null || registry.removed.isEmpty()) {
+                return;
+            }
+            LongOpenHashSet removed = new LongOpenHashSet(registry.removed);
+            registry.removed.clear();
+            cleanup(world, CompressedBlockStorage.removeAll(world, removed));
+        });
+    }
+
+    /**
+     * An explosion is about to destroy these blocks: take over the compressed ones.
+     * Handled positions are removed from the list so vanilla does not drop plain blocks for them.
+     *
+     * Follows the same rules as {@code AbstractBlock.onExploded}: explosions that only trigger
+     * blocks (wind charges, breezes) or keep them leave compressed blocks alone, blocks that
+     * do not drop on explosions drop nothing, and decaying explosions keep each drop with
+     * a chance of 1 / power (the {@code survives_explosion} loot condition).
+     */
+    public static void onExplosion(ServerWorld world, Explosion explosion, List<BlockPos> positions) {
+        Explosion.DestructionType type = explosion.getDestructionType();
+        if (type == Explosion.DestructionType.TRIGGER_BLOCK || type == Explosion.DestructionType.KEEP) {
+            return; // Vanilla leaves these in place too
+        }
+
+        CompressedBlockIndex index = CompressedBlockIndex.get(world);
+        LongOpenHashSet compressed = new LongOpenHashSet();
+        for (BlockPos pos : positions) {
+            if (index.mightContain(pos) && index.get(pos) != null) {
+                compressed.add(pos.asLong());
+            }
+        }
+        if (compressed.isEmpty()) {
+            return; // Common case: nothing compressed in the blast
+        }
+
+        positions.removeIf(pos -> compressed.contains(pos.asLong()));
+        Long2ObjectMap<CompressedBlock> removed = CompressedBlockStorage.removeAll(world, compressed);
+        cleanup(world, removed);
+
+        // Drop everything in one pass, merging equal stacks
+        List<ItemStack> drops = new ArrayList<>();
+        List<BlockPos> dropPositions = new ArrayList<>();
+        BlockState air = Blocks.AIR.getDefaultState();
+        boolean decay = type == Explosion.DestructionType.DESTROY_WITH_DECAY;
+        float power = explosion.getPower();
+        for (Long2ObjectMap.Entry<CompressedBlock> entry : removed.long2ObjectEntrySet()) {
+            BlockPos pos = BlockPos.fromLong(entry.getLongKey());
+            Block block = world.getBlockState(pos).getBlock();
+            world.setBlockState(pos, air, Block.NOTIFY_ALL);
+            block.onDestroyedByExplosion(world, pos, explosion);
+            if (!block.shouldDropItemsOnExplosion(explosion)) {
+                continue;
+            }
+            if (decay && power > 1.0F && world.random.nextFloat() > 1.0F / power) {
+                continue; // Lost to explosion decay, like a plain block
+            }
+            addDrop(drops, dropPositions, createDrop(entry.getValue()), pos);
+        }
+        for (int i = 0; i < drops.size(); i++) {
+            Block.dropStack(world, dropPositions.get(i), drops.get(i));
+        }
+    }
+
+    /**
+     * A block is being broken with drops (e.g., by a quarry).
+     *
+     * @return true if it was a compressed block and has been handled (vanilla must not break it)
+     */
+    public static boolean onBreakBlock(ServerWorld world, BlockPos pos) {
+        if (!CompressedBlockStorage.mightBeCompressed(world, pos)) {
+            return false;
+        }
+        CompressedBlock block = CompressedBlockStorage.remove(world, pos);
+        if (block == null) {
+            return false;
+        }
+        DisplayRegistry.get(world).discard(pos);
+        OverlayMerger.onRemoved(world, pos);
+
+        BlockState state = world.getBlockState(pos);
+        world.syncWorldEvent(WorldEvents.BLOCK_BROKEN, pos, Block.getRawIdFromState(state));
+        world.setBlockState(pos, Blocks.AIR.getDefaultState(), Block.NOTIFY_ALL);
+        Block.dropStack(world, pos, createDrop(block));
+        return true;
+    }
+
+    /**
+     * A block changed - queue it if a compressed block was replaced by something else.
+     */
+    public static void onBlockChanged(ServerWorld world, BlockPos pos, BlockState newState) {
+        CompressedBlockIndex index = CompressedBlockIndex.get(world);
+        if (!index.mightContain(pos)) {
+            return;
+        }
+        CompressedBlock block = index.get(pos);
+        if (block == null) {
+            return; // Pistons never get here: compressed blocks are immovable (PistonBlockMixin)
+        }
+        Identifier id = Identifier.tryParse(block.blockId());
+        Block expected = id != null ? Registries.BLOCK.get(id) : Blocks.AIR;
+        if (expected != Blocks.AIR && !newState.isOf(expected)) {
+            DisplayRegistry.get(world).removed.add(pos.asLong());
+        }
+    }
+
+    /**
+     * Remove the display entities of removed blocks (merged overlays: once per section).
+     */
+    private static void cleanup(ServerWorld world, Long2ObjectMap<CompressedBlock> removed) {
+        if (removed.isEmpty()) {
+            return;
+        }
+        DisplayRegistry registry = DisplayRegistry.get(world);
+        LongSet sections = new LongOpenHashSet();
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+        for (long packed : removed.keySet()) {
+            registry.discard(pos.set(packed));
+            sections.add(ChunkSectionPos.from(pos).asLong());
+        }
+
+        CompressyConfig config = CompressyConfig.get();
+        if (config.mergeOverlays && config.showDarkeningOverlay && !config.isClientRendered()) {
+            // Many blocks at once - re-merge each section whole, within the visual budget
+            for (long section : sections) {
+                DisplayVisibility.queueSection(world, ChunkSectionPos.from(section));
+            }
+        }
+    }
+
+    private static ItemStack createDrop(CompressedBlock block) {
+        // Same canonical stack as crafting produces (last resort: stone)
+        return CompressedStacks.create(block.blockId(), block.level(), 1, Items.STONE);
+    }
+
+    private static void addDrop(List<ItemStack> drops, List<BlockPos> positions, ItemStack stack, BlockPos pos) {
+        for (ItemStack drop : drops) {
+            if (drop.getCount() < drop.getMaxCount() && ItemStack.areItemsAndComponentsEqual(drop, stack)) {
+                drop.increment(1);
+                return;
+            }
+        }
+        drops.add(stack);
+        positions.add(pos);
+    }
+}
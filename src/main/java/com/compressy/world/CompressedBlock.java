@@ -0,0 +1,17 @@
+package com.compressy.world;
+
+import java.util.UUID;
+
+/**
+ * Compression data for a single placed compressed block.
+ *
+ * @param blockId The original BLOCK ID (e.g., "minecraft:cobblestone")
+ * @param level The compression tier (1-32)
+ * @param owner The player who placed it, or null if unknown (placed before owners were recorded)
+ */
+public record CompressedBlock(String blockId, int level, UUID owner) {
+
+    public CompressedBlock(String blockId, int level) {
+        this(blockId, level, null);
+    }
+}
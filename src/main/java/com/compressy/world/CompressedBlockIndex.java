@@ -0,0 +1,159 @@
+package com.compressy.world;
+
+import com.compressy.CompressyMod;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+
+/**
+ * In-memory index of every compressed block in the LOADED chunks of one world.
+ *
+ * WHY:
+ * Every block break on the server asks "is this block compressed?".
+ * Almost always the answer is no, so that question has to be nearly free.
+ *
+ * HOW:
+ * - blocks:       packed BlockPos long -> data (primitive open-addressing map)
+ * - sectionMasks: packed ChunkPos long -> one bit per chunk section that has compressed blocks
+ *
+ * A normal block break costs one mask lookup and one bit test.
+ * A compressed block break costs one more O(1) lookup.
+ *
+ * The chunk attachment ({@link CompressedChunkData}) stays the saved source of truth;
+ * this index mirrors it for loaded chunks and is rebuilt on chunk load.
+ */
+public class CompressedBlockIndex {
+
+    // Sections at or above this bit share the last bit (worlds taller than 1024 blocks)
+    private static final int MAX_SECTION_BIT = 63;
+    private static final long[] EMPTY = new long[0];
+
+    private final int bottomSectionCoord;
+    private final Long2ObjectOpenHashMap<CompressedBlock> blocks = new Long2ObjectOpenHashMap<>();
+    private final Long2LongOpenHashMap sectionMasks = new Long2LongOpenHashMap();
+    private final Long2IntOpenHashMap sectionCounts = new Long2IntOpenHashMap();
+    // Chunks whose attachment changed this tick (synced once at the end of the tick)
+    private final LongOpenHashSet dirtyChunks = new LongOpenHashSet();
+
+    public CompressedBlockIndex(int bottomSectionCoord) {
+        this.bottomSectionCoord = bottomSectionCoord;
+    }
+
+    /**
+     * Get (or create) the index for a world.
+     */
+    public static CompressedBlockIndex get(ServerWorld world) {
+        CompressedBlockIndex index = world.getAttached(CompressyMod.COMPRESSED_INDEX);
+        if (index == null) {
+            index = new CompressedBlockIndex(world.getBottomSectionCoord());
+            world.setAttached(CompressyMod.COMPRESSED_INDEX, index);
+        }
+        return index;
+    }
+
+    /**
+     * Fast negative check: false means the position is definitely NOT compressed.
+     */
+    public boolean mightContain(BlockPos pos) {
+        long mask = sectionMasks.get(ChunkPos.toLong(pos.getX() >> 4, pos.getZ() >> 4));
+        return (mask & (1L << sectionBit(pos.getY()))) != 0;
+    }
+
+    /**
+     * Get the compressed block at a position, or null if not compressed.
+     */
+    public CompressedBlock get(BlockPos pos) {
+        if (!mightContain(pos)) {
+            return null;
+        }
+        return blocks.get(pos.asLong());
+    }
+
+    public void put(long pos, CompressedBlock block) {
+        if (blocks.put(pos, block) == null) {
+            int bit = sectionBit(BlockPos.unpackLongY(pos));
+            int chunkX = BlockPos.unpackLongX(pos) >> 4;
+            int chunkZ = BlockPos.unpackLongZ(pos) >> 4;
+            sectionCounts.addTo(ChunkSectionPos.asLong(chunkX, bit, chunkZ), 1);
+            long chunkKey = ChunkPos.toLong(chunkX, chunkZ);
+            sectionMasks.put(chunkKey, sectionMasks.get(chunkKey) | (1L << bit));
+        }
+    }
+
+    public CompressedBlock remove(long pos) {
+        CompressedBlock removed = blocks.remove(pos);
+        if (removed != null) {
+            int bit = sectionBit(BlockPos.unpackLongY(pos));
+            int chunkX = BlockPos.unpackLongX(pos) >> 4;
+            int chunkZ = BlockPos.unpackLongZ(pos) >> 4;
+            long sectionKey = ChunkSectionPos.asLong(chunkX, bit, chunkZ);
+            if (sectionCounts.addTo(sectionKey, -1) <= 1) {
+                // That was the last compressed block in this section - clear its bit
+                sectionCounts.remove(sectionKey);
+                long chunkKey = ChunkPos.toLong(chunkX, chunkZ);
+                long mask = sectionMasks.get(chunkKey) & ~(1L << bit);
+                if (mask == 0) {
+                    sectionMasks.remove(chunkKey);
+                } else {
+                    sectionMasks.put(chunkKey, mask);
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Mirror a freshly loaded chunk's data into the index.
+     */
+    public void addChunk(CompressedChunkData data) {
+        data.forEach(this::put);
+    }
+
+    /**
+     * Drop an unloading chunk's data from the index.
+     */
+    public void removeChunk(CompressedChunkData data) {
+        data.forEach((pos, block) -> remove(pos));
+    }
+
+    /**
+     * Remember that a chunk's attachment changed and must be synced.
+     */
+    public void markDirty(long chunkKey) {
+        dirtyChunks.add(chunkKey);
+    }
+
+    /**
+     * Take the chunks changed since the last call.
+     */
+    public long[] drainDirty() {
+        if (dirtyChunks.isEmpty()) {
+            return EMPTY;
+        }
+        long[] keys = dirtyChunks.toLongArray();
+        dirtyChunks.clear();
+        return keys;
+    }
+
+    public int size() {
+        return blocks.size();
+    }
+
+    /**
+     * Keys of all chunks that have compressed blocks (a copy).
+     */
+    public long[] chunkKeys() {
+        return sectionMasks.keySet().toLongArray();
+    }
+
+    private int sectionBit(int y) {
+        int bit = (y >> 4) - bottomSectionCoord;
+        return Math.max(0, Math.min(bit, MAX_SECTION_BIT));
+    }
+}
@@ -0,0 +1,186 @@
+package com.compressy.world;
+
+import com.compressy.CompressyMod;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongCollection;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.chunk.WorldChunk;
+
+/**
+ * Read/write access to placed compressed blocks.
+ *
+ * The data lives in a per-chunk attachment ({@link CompressedChunkData}),
+ * so a placed compressed block costs no entity at all.
+ * Lookups go through the per-world {@link CompressedBlockIndex}.
+ *
+ * Removals also uncount blocks the {@link DisplayBudget} refused visuals, whichever path removed them.
+ *
+ * Changes mutate the attachment in place and only mark the chunk for saving.
+ * Each changed chunk is re-attached (and so synced to tracking players) ONCE
+ * at the end of the world tick, however many of its blocks changed.
+ */
+public class CompressedBlockStorage {
+
+    /**
+     * Keep the per-world index in sync with chunk loading/unloading.
+     */
+    public static void register() {
+        ServerChunkEvents.CHUNK_LOAD.register((world, chunk) -> {
+            CompressedChunkData data = chunk.getAttached(CompressyMod.COMPRESSED_BLOCKS);
+            if (data == null) {
+                return;
+            }
+            if (data.isEmpty()) {
+                // Emptied last time it was loaded (see flush)
+                chunk.removeAttached(CompressyMod.COMPRESSED_BLOCKS);
+                return;
+            }
+            CompressedBlockIndex.get(world).addChunk(data);
+        });
+
+        ServerChunkEvents.CHUNK_UNLOAD.register((world, chunk) -> {
+            CompressedChunkData data = chunk.getAttached(CompressyMod.COMPRESSED_BLOCKS);
+            if (data != null) {
+                CompressedBlockIndex.get(world).removeChunk(data);
+            }
+        });
+
+        ServerTickEvents.END_WORLD_TICK.register(CompressedBlockStorage::flush);
+    }
+
+    /**
+     * Re-attach every chunk changed this tick - one sync per chunk.
+     */
+    private static void flush(ServerWorld world) {
+        for (long chunkKey : CompressedBlockIndex.get(world).drainDirty()) {
+            WorldChunk chunk = world.getChunkManager()
+                .getWorldChunk(ChunkPos.getPackedX(chunkKey), ChunkPos.getPackedZ(chunkKey));
+            if (chunk == null) {
+                continue; // Unloaded meanwhile - already marked for saving, nobody to sync to
+            }
+            CompressedChunkData data = chunk.getAttached(CompressyMod.COMPRESSED_BLOCKS);
+            if (data != null) {
+                // Emptied data stays attached until the chunk reloads, so clients are sent
+                // an empty copy instead of a bare removal
+                chunk.setAttached(CompressyMod.COMPRESSED_BLOCKS, data);
+            }
+        }
+    }
+
+    /**
+     * The attachment of this chunk was changed in place: save it, sync it at the end of the tick.
+     */
+    private static void markChanged(CompressedBlockIndex index, WorldChunk chunk) {
+        chunk.markNeedsSaving();
+        index.markDirty(chunk.getPos().toLong());
+    }
+
+    /**
+     * Cheap pre-check: false means the position is definitely NOT compressed.
+     */
+    public static boolean mightBeCompressed(ServerWorld world, BlockPos pos) {
+        return CompressedBlockIndex.get(world).mightContain(pos);
+    }
+
+    /**
+     * Get the compressed block data at a position.
+     *
+     * @return The stored data, or null if the block at this position is not compressed
+     */
+    public static CompressedBlock get(ServerWorld world, BlockPos pos) {
+        return CompressedBlockIndex.get(world).get(pos);
+    }
+
+    /**
+     * Record a compressed block at a position.
+     */
+    public static void put(ServerWorld world, BlockPos pos, CompressedBlock block) {
+        WorldChunk chunk = world.getWorldChunk(pos);
+        CompressedChunkData data = chunk.getAttached(CompressyMod.COMPRESSED_BLOCKS);
+        if (data == null) {
+            data = new CompressedChunkData();
+            chunk.setAttached(CompressyMod.COMPRESSED_BLOCKS, data);
+        }
+        data.put(pos.asLong(), block);
+        CompressedBlockIndex index = CompressedBlockIndex.get(world);
+        index.put(pos.asLong(), block);
+        markChanged(index, chunk);
+    }
+
+    /**
+     * Forget the compressed block at a position.
+     *
+     * @return The removed data, or null if the block was not compressed
+     */
+    public static CompressedBlock remove(ServerWorld world, BlockPos pos) {
+        CompressedBlockIndex index = CompressedBlockIndex.get(world);
+        if (!index.mightContain(pos)) {
+            return null;
+        }
+
+        WorldChunk chunk = world.getChunkManager().getWorldChunk(pos.getX() >> 4, pos.getZ() >> 4);
+        CompressedChunkData data = chunk != null ? chunk.getAttached(CompressyMod.COMPRESSED_BLOCKS) : null;
+        if (data == null) {
+            return null;
+        }
+
+        CompressedBlock removed = data.remove(pos.asLong());
+        index.remove(pos.asLong());
+        if (removed == null) {
+            return null;
+        }
+        DisplayBudget.onBlockRemoved(world, pos);
+
+        markChanged(index, chunk);
+        return removed;
+    }
+
+    /**
+     * Forget many compressed blocks at once - ONE lookup per chunk.
+     *
+     * @return The removed data by packed position (positions that were not compressed are left out)
+     */
+    public static Long2ObjectMap<CompressedBlock> removeAll(ServerWorld world, LongCollection positions) {
+        CompressedBlockIndex index = CompressedBlockIndex.get(world);
+        Long2ObjectOpenHashMap<LongArrayList> byChunk = new Long2ObjectOpenHashMap<>();
+        for (long pos : positions) {
+            long chunkKey = ChunkPos.toLong(BlockPos.unpackLongX(pos) >> 4, BlockPos.unpackLongZ(pos) >> 4);
+            byChunk.computeIfAbsent(chunkKey, key -> new LongArrayList()).add(pos);
+        }
+
+        Long2ObjectOpenHashMap<CompressedBlock> removed = new Long2ObjectOpenHashMap<>();
+        for (Long2ObjectMap.Entry<LongArrayList> entry : byChunk.long2ObjectEntrySet()) {
+            long chunkKey = entry.getLongKey();
+            // Never load a chunk - an unloaded one is no longer in the index either
+            WorldChunk chunk = world.getChunkManager().getWorldChunk(ChunkPos.getPackedX(chunkKey), ChunkPos.getPackedZ(chunkKey));
+            CompressedChunkData data = chunk != null ? chunk.getAttached(CompressyMod.COMPRESSED_BLOCKS) : null;
+            if (data == null) {
+                continue;
+            }
+
+            boolean changed = false;
+            BlockPos.Mutable mutable = new BlockPos.Mutable();
+            for (long pos : entry.getValue()) {
+                CompressedBlock block = data.remove(pos);
+                index.remove(pos);
+                if (block != null) {
+                    removed.put(pos, block);
+                    DisplayBudget.onBlockRemoved(world, mutable.set(pos));
+                    changed = true;
+                }
+            }
+
+            if (changed) {
+                markChanged(index, chunk);
+            }
+        }
+        return removed;
+    }
+}
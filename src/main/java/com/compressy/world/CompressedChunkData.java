@@ -0,0 +1,206 @@
+package com.compressy.world;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.network.RegistryByteBuf;
+import net.minecraft.network.codec.PacketCodec;
+import net.minecraft.util.Uuids;
+
+/**
+ * All compressed blocks placed inside one chunk.
+ *
+ * Stored as a chunk attachment, so it is saved with the chunk and loaded with it.
+ * Replaces the old INTERACTION marker entity that used to sit on every placed block.
+ *
+ * ON DISK (compact palette format):
+ * - palette:   ["minecraft:cobblestone", "minecraft:stone", ...]
+ * - positions: packed BlockPos longs
+ * - values:    (paletteIndex << 8) | level, one per position
+ *
+ * - owners:       ["uuid", ...] players who placed the blocks (optional)
+ * - ownerIndices: index into owners per position, -1 if unknown (optional)
+ *
+ * Block IDs are written once per chunk instead of once per block.
+ *
+ * ON THE WIRE:
+ * Synced to players tracking the chunk (in "client" render mode), using the same
+ * palette layout, so modded clients can draw tier labels without any entities.
+ * Owners are not sent. Decoding has no side effects - the client picks up new copies
+ * as they are set on their chunk (see {@code ClientCompressedBlocks}).
+ */
+public class CompressedChunkData {
+
+    public static final Codec<CompressedChunkData> CODEC = Serialized.CODEC.xmap(
+        CompressedChunkData::fromSerialized,
+        CompressedChunkData::toSerialized
+    );
+
+    public static final PacketCodec<RegistryByteBuf, CompressedChunkData> PACKET_CODEC = PacketCodec.of(
+        (data, buf) -> data.toSerialized().write(buf),
+        buf -> fromSerialized(Serialized.read(buf))
+    );
+
+    private final Long2ObjectOpenHashMap<CompressedBlock> blocks = new Long2ObjectOpenHashMap<>();
+
+    public CompressedChunkData() {
+    }
+
+    /**
+     * Get the compressed block at a packed position, or null if none.
+     */
+    public CompressedBlock get(long pos) {
+        return blocks.get(pos);
+    }
+
+    /**
+     * Store a compressed block at a packed position.
+     */
+    public void put(long pos, CompressedBlock block) {
+        blocks.put(pos, block);
+    }
+
+    /**
+     * Remove the compressed block at a packed position.
+     *
+     * @return The removed data, or null if there was none
+     */
+    public CompressedBlock remove(long pos) {
+        return blocks.remove(pos);
+    }
+
+    public boolean isEmpty() {
+        return blocks.isEmpty();
+    }
+
+    public int size() {
+        return blocks.size();
+    }
+
+    /**
+     * Packed positions of all compressed blocks in this chunk (a copy).
+     */
+    public long[] positions() {
+        return blocks.keySet().toLongArray();
+    }
+
+    /**
+     * Visit every (packed position, data) pair in this chunk.
+     */
+    public void forEach(BiConsumer<Long, CompressedBlock> consumer) {
+        for (Long2ObjectMap.Entry<CompressedBlock> entry : blocks.long2ObjectEntrySet()) {
+            consumer.accept(entry.getLongKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Iterate every entry without boxing (for per-frame loops on the client).
+     */
+    public Iterable<Long2ObjectMap.Entry<CompressedBlock>> entries() {
+        return Long2ObjectMaps.fastIterable(blocks);
+    }
+
+    // === Serialization ===
+
+    private static CompressedChunkData fromSerialized(Serialized serialized) {
+        CompressedChunkData data = new CompressedChunkData();
+        int count = Math.min(serialized.positions().length, serialized.values().length);
+        for (int i = 0; i < count; i++) {
+            int value = serialized.values()[i];
+            int paletteIndex = value >>> 8;
+            int level = value & 0xFF;
+            if (paletteIndex >= serialized.palette().size() || level <= 0) {
+                continue; // Corrupt entry - skip it rather than failing the whole chunk
+            }
+            int ownerIndex = i < serialized.ownerIndices().length ? serialized.ownerIndices()[i] : -1;
+            UUID owner = ownerIndex >= 0 && ownerIndex < serialized.owners().size() ? serialized.owners().get(ownerIndex) : null;
+            data.blocks.put(serialized.positions()[i],
+                new CompressedBlock(serialized.palette().get(paletteIndex), level, owner));
+        }
+        return data;
+    }
+
+    private Serialized toSerialized() {
+        List<String> palette = new ArrayList<>();
+        Map<String, Integer> paletteIndex = new HashMap<>();
+        List<UUID> owners = new ArrayList<>();
+        Map<UUID, Integer> ownerIndex = new HashMap<>();
+        long[] positions = new long[blocks.size()];
+        int[] values = new int[blocks.size()];
+        int[] ownerIndices = new int[blocks.size()];
+
+        int i = 0;
+        for (Long2ObjectMap.Entry<CompressedBlock> entry : blocks.long2ObjectEntrySet()) {
+            CompressedBlock block = entry.getValue();
+            int index = paletteIndex.computeIfAbsent(block.blockId(), id -> {
+                palette.add(id);
+                return palette.size() - 1;
+            });
+            positions[i] = entry.getLongKey();
+            values[i] = (index << 8) | (block.level() & 0xFF);
+            ownerIndices[i] = block.owner() == null ? -1 : ownerIndex.computeIfAbsent(block.owner(), owner -> {
+                owners.add(owner);
+                return owners.size() - 1;
+            });
+            i++;
+        }
+
+        return new Serialized(palette, positions, values, owners, ownerIndices);
+    }
+
+    private record Serialized(List<String> palette, long[] positions, int[] values,
+                              List<UUID> owners, int[] ownerIndices) {
+        static final Codec<Serialized> CODEC = RecordCodecBuilder.create(instance -> instance.group(
+            Codec.STRING.listOf().fieldOf("palette").forGetter(Serialized::palette),
+            Codec.LONG_STREAM.xmap(LongStream::toArray, Arrays::stream)
+                .fieldOf("positions").forGetter(Serialized::positions),
+            Codec.INT_STREAM.xmap(IntStream::toArray, Arrays::stream)
+                .fieldOf("values").forGetter(Serialized::values),
+            // Absent in chunks saved before owners were recorded
+            Uuids.CODEC.listOf().optionalFieldOf("owners", List.of()).forGetter(Serialized::owners),
+            Codec.INT_STREAM.xmap(IntStream::toArray, Arrays::stream)
+                .optionalFieldOf("ownerIndices", new int[0]).forGetter(Serialized::ownerIndices)
+        ).apply(instance, Serialized::new));
+
+        void write(RegistryByteBuf buf) {
+            buf.writeVarInt(palette.size());
+            for (String id : palette) {
+                buf.writeString(id);
+            }
+            buf.writeVarInt(positions.length);
+            for (int i = 0; i < positions.length; i++) {
+                buf.writeLong(positions[i]);
+                buf.writeVarInt(values[i]);
+            }
+        }
+
+        static Serialized read(RegistryByteBuf buf) {
+            int paletteSize = buf.readVarInt();
+            List<String> palette = new ArrayList<>(paletteSize);
+            for (int i = 0; i < paletteSize; i++) {
+                palette.add(buf.readString());
+            }
+            int count = buf.readVarInt();
+            long[] positions = new long[count];
+            int[] values = new int[count];
+            for (int i = 0; i < count; i++) {
+                positions[i] = buf.readLong();
+                values[i] = buf.readVarInt();
+            }
+            return new Serialized(palette, positions, values, List.of(), new int[0]);
+        }
+    }
+}
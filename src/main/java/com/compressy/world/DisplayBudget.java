@@ -0,0 +1,172 @@
+package com.compressy.world;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.compressy.config.CompressyConfig;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+
+/**
+ * Caps on how many compressed blocks may have labels/overlays, per chunk, per player and
+ * per dimension ("entities" render mode).
+ *
+ * WHY:
+ * Nothing limited how many display entities one chunk or one player could create.
+ * A 40k-block compressed wall turned a single chunk into a permanent lag source.
+ *
+ * HOW IT WORKS:
+ * - Counters are kept by {@link DisplayRegistry} as display entities load and unload,
+ *   so every check is O(1): chunk map size, registry size, one per-player counter
+ * - Only blocks WITHOUT visuals yet are checked - existing visuals are never taken away
+ * - Over a cap, the block keeps its compression data (breaking it still drops the right item),
+ *   it just gets no label or overlay; refused blocks are counted for {@code /cblocks admin top}
+ *   ONCE per position (the same block is re-checked by every refresh and reconcile pass),
+ *   and uncounted again when they get their visuals later, are removed, or their chunk unloads
+ *
+ * Counts cover loaded chunks only - that is what costs the server.
+ * Merged overlays are one per box, not per block, and are not capped.
+ */
+public class DisplayBudget {
+
+    // Loaded visual blocks per player, over all dimensions
+    private static final Object2IntOpenHashMap<UUID> PLAYER_COUNTS = new Object2IntOpenHashMap<>();
+    // Blocks that got no visuals because of a cap, per player (null key: unknown owner)
+    private static final Object2IntOpenHashMap<UUID> PLAYER_SKIPPED = new Object2IntOpenHashMap<>();
+    // Refused positions per dimension and chunk -> owner (may be null), so each block is counted once
+    // and a whole chunk can be dropped when it unloads
+    private static final Map<RegistryKey<World>, Long2ObjectOpenHashMap<Long2ObjectOpenHashMap<UUID>>> REFUSED =
+        new HashMap<>();
+    private static long skipped;
+
+    public static void register() {
+        ServerChunkEvents.CHUNK_UNLOAD.register((world, chunk) -> onChunkUnloaded(world, chunk.getPos().toLong()));
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+            PLAYER_COUNTS.clear();
+            PLAYER_SKIPPED.clear();
+            REFUSED.clear();
+            skipped = 0;
+        });
+    }
+
+    /**
+     * Check whether a block without visuals may get them.
+     * Counts the block as refused if it may not (once per position).
+     */
+    public static boolean allows(ServerWorld world, BlockPos pos, UUID owner) {
+        CompressyConfig config = CompressyConfig.get();
+        DisplayRegistry registry = DisplayRegistry.get(world);
+        boolean allowed = (config.maxDisplaysPerChunk <= 0 || registry.chunkSize(ChunkPos.toLong(pos)) < config.maxDisplaysPerChunk)
+            && (config.maxDisplaysPerDimension <= 0 || registry.size() < config.maxDisplaysPerDimension)
+            && (config.maxDisplaysPerPlayer <= 0 || owner == null || PLAYER_COUNTS.getInt(owner) < config.maxDisplaysPerPlayer);
+        if (!allowed) {
+            Long2ObjectOpenHashMap<UUID> refused = REFUSED
+                .computeIfAbsent(world.getRegistryKey(), key -> new Long2ObjectOpenHashMap<>())
+                .computeIfAbsent(ChunkPos.toLong(pos), key -> new Long2ObjectOpenHashMap<>());
+            if (!refused.containsKey(pos.asLong())) {
+                refused.put(pos.asLong(), owner);
+                skipped++;
+                PLAYER_SKIPPED.addTo(owner, 1);
+            }
+        } else {
+            onBlockRemoved(world, pos);
+        }
+        return allowed;
+    }
+
+    /**
+     * Uncount a block that was refused visuals (it got them, or it is gone).
+     */
+    public static void onBlockRemoved(ServerWorld world, BlockPos pos) {
+        Long2ObjectOpenHashMap<Long2ObjectOpenHashMap<UUID>> chunks = REFUSED.get(world.getRegistryKey());
+        Long2ObjectOpenHashMap<UUID> refused = chunks == null ? null : chunks.get(ChunkPos.toLong(pos));
+        if (refused == null || !refused.containsKey(pos.asLong())) {
+            return;
+        }
+        uncount(refused.remove(pos.asLong()));
+        if (refused.isEmpty()) {
+            chunks.remove(ChunkPos.toLong(pos));
+        }
+    }
+
+    /**
+     * Uncount every refused block of an unloaded chunk - they are re-checked when it loads again.
+     */
+    private static void onChunkUnloaded(ServerWorld world, long chunkKey) {
+        Long2ObjectOpenHashMap<Long2ObjectOpenHashMap<UUID>> chunks = REFUSED.get(world.getRegistryKey());
+        Long2ObjectOpenHashMap<UUID> refused = chunks == null ? null : chunks.remove(chunkKey);
+        if (refused != null) {
+            refused.values().forEach(DisplayBudget::uncount);
+        }
+    }
+
+    private static void uncount(UUID owner) {
+        skipped--;
+        if (PLAYER_SKIPPED.addTo(owner, -1) <= 1) {
+            PLAYER_SKIPPED.removeInt(owner);
+        }
+    }
+
+    static void onAdded(UUID owner) {
+        if (owner != null) {
+            PLAYER_COUNTS.addTo(owner, 1);
+        }
+    }
+
+    static void onRemoved(UUID owner) {
+        if (owner != null && PLAYER_COUNTS.addTo(owner, -1) <= 1) {
+            PLAYER_COUNTS.removeInt(owner);
+        }
+    }
+
+    public static int getPlayerCount(UUID owner) {
+        return PLAYER_COUNTS.getInt(owner);
+    }
+
+    public static int getPlayerSkipped(UUID owner) {
+        return PLAYER_SKIPPED.getInt(owner);
+    }
+
+    /**
+     * Number of blocks that got no visuals because of a cap (each counted once, until it gets them).
+     */
+    public static long getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * The players with the most loaded visual blocks, highest first.
+     */
+    public static List<Object2IntMap.Entry<UUID>> topPlayers(int limit) {
+        List<Object2IntMap.Entry<UUID>> entries = new ArrayList<>(PLAYER_COUNTS.object2IntEntrySet());
+        entries.sort(Comparator.comparingInt(Object2IntMap.Entry<UUID>::getIntValue).reversed());
+        return entries.subList(0, Math.min(limit, entries.size()));
+    }
+
+    /**
+     * The chunks of a world with the most loaded visual blocks, highest first (packed chunk keys).
+     */
+    public static long[] topChunks(ServerWorld world, int limit) {
+        DisplayRegistry registry = DisplayRegistry.get(world);
+        return Arrays.stream(registry.chunkKeys())
+            .boxed()
+            .sorted(Comparator.comparingInt(registry::chunkSize).reversed())
+            .limit(limit)
+            .mapToLong(Long::longValue)
+            .toArray();
+    }
+}
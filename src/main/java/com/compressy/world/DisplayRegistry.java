@@ -0,0 +1,439 @@
+package com.compressy.world;
+
+import com.compressy.CompressyBlockHandler;
+import com.compressy.CompressyMod;
+import com.compressy.config.CompressyConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerEntityEvents;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.decoration.DisplayEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+
+/**
+ * Live label and overlay entities of placed compressed blocks, per loaded chunk.
+ *
+ * WHY:
+ * The datapack used to run an {@code @e} selector every tick and rewrite the
+ * transformation of every label, which marked all of them dirty for tracker sync
+ * 20 times per second. Finding the entities of one block meant an entity box search.
+ *
+ * HOW IT WORKS:
+ * - Filled by ENTITY_LOAD / emptied by ENTITY_UNLOAD (entities load and unload with their chunk)
+ * - Keyed by chunk, then by the packed position of the block the entities belong to
+ * - Nothing runs per tick - entities are only touched when their block changes
+ *   (placed, broken) so idle labels cost no server work and no sync traffic
+ *
+ * Labels are billboarded, so they need no idle animation. Anything animated
+ * should set an interpolation duration once and let the client interpolate.
+ *
+ * Merged overlays (see {@link OverlayMerger}) belong to a chunk section instead of a block
+ * and are kept per section.
+ *
+ * The entities of a block carry its owner as a tag, so the per-player counts of
+ * {@link DisplayBudget} are kept here as well.
+ *
+ * In-memory only - one per world, rebuilt as entities load.
+ */
+public class DisplayRegistry {
+
+    private static final String POS_TAG_PREFIX = "compressy.pos.";
+    private static final String SECTION_TAG_PREFIX = "compressy.section.";
+    private static final String OWNER_TAG_PREFIX = "compressy.owner.";
+    private static final String BOX_TAG_PREFIX = "compressy.box.";
+
+    /**
+     * The display entities of one compressed block (either may be null).
+     */
+    public static final class Displays {
+        DisplayEntity.TextDisplayEntity label;
+        DisplayEntity.BlockDisplayEntity overlay;
+        UUID owner;
+
+        public DisplayEntity.TextDisplayEntity label() {
+            return label;
+        }
+
+        public DisplayEntity.BlockDisplayEntity overlay() {
+            return overlay;
+        }
+
+        boolean isEmpty() {
+            return label == null && overlay == null;
+        }
+    }
+
+    /**
+     * A merged overlay and the section-local box of blocks it covers.
+     * Boxes spawned before their extent was tagged have {@code tier == 0} (extent unknown).
+     */
+    public record Box(DisplayEntity.BlockDisplayEntity entity, int x, int y, int z,
+                      int sizeX, int sizeY, int sizeZ, int tier) {
+
+        public boolean hasExtent() {
+            return tier > 0;
+        }
+
+        public boolean contains(int localX, int localY, int localZ) {
+            return localX >= x && localX < x + sizeX
+                && localY >= y && localY < y + sizeY
+                && localZ >= z && localZ < z + sizeZ;
+        }
+    }
+
+    private final Long2ObjectOpenHashMap<Long2ObjectOpenHashMap<Displays>> chunks = new Long2ObjectOpenHashMap<>();
+    private final Long2ObjectOpenHashMap<List<Box>> sectionBoxes = new Long2ObjectOpenHashMap<>();
+    private int size;
+    private int boxCount;
+
+    // Compressed blocks whose visibility must be re-evaluated (see DisplayVisibility)
+    final LongOpenHashSet dirty = new LongOpenHashSet();
+    // Chunk sections whose merged overlays must be rebuilt (see DisplayVisibility)
+    final LongOpenHashSet dirtySections = new LongOpenHashSet();
+    // Compressed blocks whose merged overlay box must be split and re-merged (see DisplayVisibility)
+    final LongOpenHashSet dirtyOverlays = new LongOpenHashSet();
+    // Compressed blocks replaced by something else, removed at the end of the tick (see BulkRemovals)
+    final LongOpenHashSet removed = new LongOpenHashSet();
+
+    /**
+     * Get (or create) the registry for a world.
+     */
+    public static DisplayRegistry get(ServerWorld world) {
+        DisplayRegistry registry = world.getAttached(CompressyMod.DISPLAY_REGISTRY);
+        if (registry == null) {
+            registry = new DisplayRegistry();
+            world.setAttached(CompressyMod.DISPLAY_REGISTRY, registry);
+        }
+        return registry;
+    }
+
+    /**
+     * Track our display entities as they load and unload.
+     */
+    public static void register() {
+        ServerEntityEvents.ENTITY_LOAD.register((entity, world) -> {
+            if (!isCompressyDisplay(entity)) {
+                return;
+            }
+            if (CompressyConfig.get().isClientRendered()) {
+                // Left over from "entities" render mode - clients draw labels and tint themselves now
+                world.getServer().execute(entity::discard);
+                return;
+            }
+            get(world).add((DisplayEntity) entity, world);
+        });
+        ServerEntityEvents.ENTITY_UNLOAD.register((entity, world) -> {
+            if (isCompressyDisplay(entity)) {
+                get(world).remove((DisplayEntity) entity);
+            }
+        });
+    }
+
+    /**
+     * The command tag that ties a display entity to its block.
+     */
+    public static String positionTag(BlockPos pos) {
+        return POS_TAG_PREFIX + pos.getX() + "_" + pos.getY() + "_" + pos.getZ();
+    }
+
+    /**
+     * The command tag that records who placed the block of a display entity.
+     */
+    public static String ownerTag(UUID owner) {
+        return OWNER_TAG_PREFIX + owner;
+    }
+
+    /**
+     * The command tag that records the section-local box (and tier) a merged overlay covers.
+     */
+    public static String boxTag(int x, int y, int z, int sizeX, int sizeY, int sizeZ, int tier) {
+        return BOX_TAG_PREFIX + x + "_" + y + "_" + z + "_" + sizeX + "_" + sizeY + "_" + sizeZ + "_" + tier;
+    }
+
+    /**
+     * The command tag that ties a merged overlay to its chunk section.
+     */
+    public static String sectionTag(ChunkSectionPos section) {
+        return SECTION_TAG_PREFIX + section.getSectionX() + "_" + section.getSectionY() + "_" + section.getSectionZ();
+    }
+
+    /**
+     * Get the display entities of the compressed block at a position, or null if none are loaded.
+     */
+    public Displays get(BlockPos pos) {
+        Long2ObjectOpenHashMap<Displays> chunk = chunks.get(ChunkPos.toLong(pos));
+        return chunk == null ? null : chunk.get(pos.asLong());
+    }
+
+    /**
+     * Discard the display entities of the compressed block at a position.
+     */
+    public void discard(BlockPos pos) {
+        Displays displays = get(pos);
+        if (displays == null) {
+            return;
+        }
+        // Discarding fires ENTITY_UNLOAD, which removes the entry
+        if (displays.label != null) {
+            displays.label.discard();
+        }
+        if (displays.overlay != null) {
+            displays.overlay.discard();
+        }
+    }
+
+    /**
+     * Discard every merged overlay of a chunk section.
+     *
+     * @return The number of boxes discarded
+     */
+    public int discardBoxes(long sectionKey) {
+        List<Box> boxes = sectionBoxes.get(sectionKey);
+        if (boxes == null) {
+            return 0;
+        }
+        // Copy - discarding fires ENTITY_UNLOAD, which edits the list
+        List<Box> discarded = new ArrayList<>(boxes);
+        for (Box box : discarded) {
+            box.entity().discard();
+        }
+        return discarded.size();
+    }
+
+    /**
+     * The merged overlays of a chunk section (a copy).
+     */
+    public List<Box> boxes(long sectionKey) {
+        List<Box> boxes = sectionBoxes.get(sectionKey);
+        return boxes == null ? List.of() : List.copyOf(boxes);
+    }
+
+    /**
+     * Number of loaded merged overlays.
+     */
+    public int boxCount() {
+        return boxCount;
+    }
+
+    /**
+     * Number of compressed blocks with loaded display entities.
+     */
+    public int size() {
+        return size;
+    }
+
+    public int chunkCount() {
+        return chunks.size();
+    }
+
+    /**
+     * Number of compressed blocks with loaded display entities in a chunk.
+     */
+    public int chunkSize(long chunkKey) {
+        Long2ObjectOpenHashMap<Displays> chunk = chunks.get(chunkKey);
+        return chunk == null ? 0 : chunk.size();
+    }
+
+    /**
+     * Keys of all chunks with loaded display entities or merged overlays (a copy).
+     */
+    public long[] chunkKeys() {
+        LongOpenHashSet keys = new LongOpenHashSet(chunks.keySet());
+        for (long sectionKey : sectionBoxes.keySet()) {
+            keys.add(ChunkPos.toLong(ChunkSectionPos.unpackX(sectionKey), ChunkSectionPos.unpackZ(sectionKey)));
+        }
+        return keys.toLongArray();
+    }
+
+    /**
+     * Packed positions of the blocks with loaded display entities in a chunk (a copy).
+     */
+    public long[] positions(long chunkKey) {
+        Long2ObjectOpenHashMap<Displays> chunk = chunks.get(chunkKey);
+        return chunk == null ? new long[0] : chunk.keySet().toLongArray();
+    }
+
+    /**
+     * Keys of the sections with merged overlays in a chunk.
+     */
+    public long[] boxSections(long chunkKey) {
+        int chunkX = ChunkPos.getPackedX(chunkKey);
+        int chunkZ = ChunkPos.getPackedZ(chunkKey);
+        return sectionBoxes.keySet().longStream()
+            .filter(key -> ChunkSectionPos.unpackX(key) == chunkX && ChunkSectionPos.unpackZ(key) == chunkZ)
+            .toArray();
+    }
+
+    private void add(DisplayEntity entity, ServerWorld world) {
+        long sectionKey = readSection(entity);
+        if (sectionKey != Long.MAX_VALUE) {
+            if (entity instanceof DisplayEntity.BlockDisplayEntity box) {
+                sectionBoxes.computeIfAbsent(sectionKey, key -> new ArrayList<>()).add(readBox(box));
+                boxCount++;
+            }
+            return;
+        }
+
+        BlockPos pos = readPosition(entity);
+        Long2ObjectOpenHashMap<Displays> chunk = chunks.computeIfAbsent(ChunkPos.toLong(pos), key -> new Long2ObjectOpenHashMap<>());
+        Displays displays = chunk.get(pos.asLong());
+        if (displays == null) {
+            displays = new Displays();
+            displays.owner = readOwner(entity);
+            chunk.put(pos.asLong(), displays);
+            size++;
+            DisplayBudget.onAdded(displays.owner);
+        }
+
+        if (entity instanceof DisplayEntity.TextDisplayEntity label) {
+            displays.label = replace(displays.label, label, world);
+        } else if (entity instanceof DisplayEntity.BlockDisplayEntity overlay) {
+            displays.overlay = replace(displays.overlay, overlay, world);
+        }
+    }
+
+    private void remove(DisplayEntity entity) {
+        long sectionKey = readSection(entity);
+        if (sectionKey != Long.MAX_VALUE) {
+            List<Box> boxes = sectionBoxes.get(sectionKey);
+            if (boxes != null && boxes.removeIf(box -> box.entity() == entity)) {
+                boxCount--;
+                if (boxes.isEmpty()) {
+                    sectionBoxes.remove(sectionKey);
+                }
+            }
+            return;
+        }
+
+        BlockPos pos = readPosition(entity);
+        long chunkKey = ChunkPos.toLong(pos);
+        Long2ObjectOpenHashMap<Displays> chunk = chunks.get(chunkKey);
+        if (chunk == null) {
+            return;
+        }
+        Displays displays = chunk.get(pos.asLong());
+        if (displays == null) {
+            return;
+        }
+
+        // Only forget the entity we actually hold (a duplicate may have been discarded)
+        if (displays.label == entity) {
+            displays.label = null;
+        }
+        if (displays.overlay == entity) {
+            displays.overlay = null;
+        }
+
+        if (displays.isEmpty()) {
+            chunk.remove(pos.asLong());
+            size--;
+            DisplayBudget.onRemoved(displays.owner);
+            if (chunk.isEmpty()) {
+                chunks.remove(chunkKey);
+            }
+        }
+    }
+
+    /**
+     * Keep one entity per role - a second copy (e.g., duplicated by an old bug) is discarded.
+     */
+    private static <T extends Entity> T replace(T current, T loaded, ServerWorld world) {
+        if (current != null && current != loaded && !current.isRemoved()) {
+            // Not while the entity is still being loaded
+            world.getServer().execute(loaded::discard);
+            return current;
+        }
+        return loaded;
+    }
+
+    private static boolean isCompressyDisplay(Entity entity) {
+        return entity instanceof DisplayEntity && entity.getCommandTags().contains(CompressyBlockHandler.MARKER_TAG);
+    }
+
+    /**
+     * Read the section of a merged overlay, or Long.MAX_VALUE if the entity belongs to a block.
+     */
+    private static long readSection(Entity entity) {
+        for (String tag : entity.getCommandTags()) {
+            if (tag.startsWith(SECTION_TAG_PREFIX)) {
+                String[] parts = tag.substring(SECTION_TAG_PREFIX.length()).split("_");
+                if (parts.length == 3) {
+                    try {
+                        return ChunkSectionPos.asLong(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+                    } catch (NumberFormatException e) {
+                        break;
+                    }
+                }
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Read the box tag of a merged overlay (extent unknown if it has none).
+     */
+    private static Box readBox(DisplayEntity.BlockDisplayEntity entity) {
+        for (String tag : entity.getCommandTags()) {
+            if (tag.startsWith(BOX_TAG_PREFIX)) {
+                String[] parts = tag.substring(BOX_TAG_PREFIX.length()).split("_");
+                if (parts.length == 7) {
+                    try {
+                        int[] values = new int[7];
+                        for (int i = 0; i < 7; i++) {
+                            values[i] = Integer.parseInt(parts[i]);
+                        }
+                        return new Box(entity, values[0], values[1], values[2], values[3], values[4], values[5], values[6]);
+                    } catch (NumberFormatException e) {
+                        break;
+                    }
+                }
+            }
+        }
+        return new Box(entity, 0, 0, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Read the owner tag, or null if the entity has none.
+     */
+    private static UUID readOwner(Entity entity) {
+        for (String tag : entity.getCommandTags()) {
+            if (tag.startsWith(OWNER_TAG_PREFIX)) {
+                try {
+                    return UUID.fromString(tag.substring(OWNER_TAG_PREFIX.length()));
+                } catch (IllegalArgumentException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Read the block position from the position tag, falling back to the entity position.
+     */
+    private static BlockPos readPosition(Entity entity) {
+        for (String tag : entity.getCommandTags()) {
+            if (tag.startsWith(POS_TAG_PREFIX)) {
+                String[] parts = tag.substring(POS_TAG_PREFIX.length()).split("_");
+                if (parts.length == 3) {
+                    try {
+                        return new BlockPos(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+                    } catch (NumberFormatException e) {
+                        break; // Use entity position
+                    }
+                }
+            }
+        }
+        // Labels float one block above their block
+        BlockPos entityPos = entity.getBlockPos();
+        return entity.getCommandTags().contains(CompressyBlockHandler.LABEL_TAG) ? entityPos.down() : entityPos;
+    }
+}
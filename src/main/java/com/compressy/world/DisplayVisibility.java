@@ -0,0 +1,231 @@
+package com.compressy.world;
+
+import com.compressy.CompressyBlockHandler;
+import com.compressy.CompressyMod;
+import com.compressy.config.CompressyConfig;
+
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.Direction;
+
+/**
+ * Only gives compressed blocks the display entities that can actually be seen
+ * ("entities" render mode).
+ *
+ * WHY:
+ * A solid cube of compressed cobblestone used to get a label and an overlay for EVERY block,
+ * although only the outer shell can ever be seen.
+ *
+ * HOW IT WORKS:
+ * - Overlay: only if at least one face touches a block that is not an opaque full cube
+ * - Label:   only if the block above is air
+ * - Every block change next to (or at) a compressed block marks that block dirty
+ *   (see {@code ServerWorldMixin}) - a cheap index check rules out everything else
+ * - Dirty blocks are re-evaluated once at the end of the world tick: missing entities
+ *   are spawned, entities that became hidden are discarded
+ *
+ * SPAWN BUDGET:
+ * Placing a compressed block records its data immediately but only queues its visuals.
+ * Pasting a schematic or mass-placing used to spawn hundreds of entities in one tick.
+ * - The queue (dirty blocks, merged overlay updates, sections to rebuild) is drained
+ *   until {@code performance.visualBudgetMicros} is used up; the rest waits for the next tick
+ * - While the server is slower than {@code performance.targetMspt}, the budget shrinks
+ *   by target / actual (at least one entry of each queue is processed per tick, so every queue drains)
+ *
+ * Merged overlays ({@link OverlayMerger}) are not occlusion-culled - one box covers
+ * the hidden inside of a wall for free.
+ */
+public class DisplayVisibility {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * Process the queued blocks and sections of each world at the end of its tick.
+     */
+    public static void register() {
+        ServerTickEvents.END_WORLD_TICK.register(world -> {
+            DisplayRegistry registry = world.getAttached(CompressyMod.DISPLAY_REGISTRY);
+            if (registry == null || (registry.dirty.isEmpty() && registry.dirtySections.isEmpty()
+                    && registry.dirtyOverlays.isEmpty())) {
+                return;
+            }
+            long deadline = getDeadline(world);
+            BlockPos.Mutable pos = new BlockPos.Mutable();
+            // Each queue gets at least one entry per tick, so none of them can starve the others
+            LongIterator iterator = registry.dirty.iterator();
+            boolean first = true;
+            while (iterator.hasNext() && (first || System.nanoTime() < deadline)) {
+                long packed = iterator.nextLong();
+                iterator.remove();
+                if (isLoaded(world, BlockPos.unpackLongX(packed) >> 4, BlockPos.unpackLongZ(packed) >> 4)) {
+                    refresh(world, pos.set(packed));
+                }
+                first = false;
+            }
+            iterator = registry.dirtyOverlays.iterator();
+            first = true;
+            while (iterator.hasNext() && (first || System.nanoTime() < deadline)) {
+                long packed = iterator.nextLong();
+                iterator.remove();
+                if (isLoaded(world, BlockPos.unpackLongX(packed) >> 4, BlockPos.unpackLongZ(packed) >> 4)) {
+                    OverlayMerger.update(world, pos.set(packed));
+                }
+                first = false;
+            }
+            iterator = registry.dirtySections.iterator();
+            first = true;
+            while (iterator.hasNext() && (first || System.nanoTime() < deadline)) {
+                long section = iterator.nextLong();
+                iterator.remove();
+                if (isLoaded(world, ChunkSectionPos.unpackX(section), ChunkSectionPos.unpackZ(section))) {
+                    OverlayMerger.rebuild(world, ChunkSectionPos.from(section));
+                }
+                first = false;
+            }
+        });
+    }
+    
+    /**
+     * Queue the visuals of a (newly placed) compressed block.
+     */
+    public static void queue(ServerWorld world, BlockPos pos) {
+        DisplayRegistry.get(world).dirty.add(pos.asLong());
+    }
+    
+    /**
+     * Queue a split and re-merge of the merged overlay box around a (newly placed) compressed block.
+     */
+    public static void queueOverlay(ServerWorld world, BlockPos pos) {
+        DisplayRegistry.get(world).dirtyOverlays.add(pos.asLong());
+    }
+    
+    /**
+     * Queue a rebuild of the merged overlays of a chunk section.
+     */
+    public static void queueSection(ServerWorld world, ChunkSectionPos section) {
+        DisplayRegistry.get(world).dirtySections.add(section.asLong());
+    }
+    
+    /**
+     * Number of blocks and sections waiting for their visuals in a world.
+     */
+    public static int queued(ServerWorld world) {
+        DisplayRegistry registry = DisplayRegistry.get(world);
+        return registry.dirty.size() + registry.dirtyOverlays.size() + registry.dirtySections.size();
+    }
+    
+    /**
+     * Entries queued before their chunk unloaded are dropped - the chunk's visuals are
+     * re-evaluated when it loads again, and looking them up now would load it.
+     */
+    private static boolean isLoaded(ServerWorld world, int chunkX, int chunkZ) {
+        return world.isChunkLoaded(chunkX, chunkZ);
+    }
+
+    /**
+     * End of this tick's visual budget, shrunk while the server is behind its target tick time.
+     */
+    private static long getDeadline(ServerWorld world) {
+        CompressyConfig config = CompressyConfig.get();
+        if (config.visualBudgetMicros <= 0) {
+            return Long.MAX_VALUE; // No budget - everything now
+        }
+        double budget = config.visualBudgetMicros * 1000.0;
+        double mspt = world.getServer().getAverageNanosPerTick() / 1_000_000.0;
+        if (mspt > config.targetMspt) {
+            budget *= config.targetMspt / mspt;
+        }
+        return System.nanoTime() + (long) budget;
+    }
+
+    /**
+     * A block changed - mark it and its compressed neighbours for re-evaluation.
+     */
+    public static void onBlockChanged(ServerWorld world, BlockPos pos) {
+        if (CompressyConfig.get().isClientRendered()) {
+            return; // No display entities to manage
+        }
+        CompressedBlockIndex index = CompressedBlockIndex.get(world);
+        DisplayRegistry registry = null;
+        BlockPos.Mutable neighbor = new BlockPos.Mutable();
+
+        if (index.mightContain(pos)) {
+            registry = DisplayRegistry.get(world);
+            registry.dirty.add(pos.asLong());
+        }
+        for (Direction direction : DIRECTIONS) {
+            neighbor.set(pos, direction);
+            if (index.mightContain(neighbor)) {
+                if (registry == null) {
+                    registry = DisplayRegistry.get(world);
+                }
+                registry.dirty.add(neighbor.asLong());
+            }
+        }
+    }
+
+    /**
+     * Spawn or discard the label and overlay of one block to match what can be seen.
+     *
+     * @return true if any entity was spawned or discarded
+     */
+    public static boolean refresh(ServerWorld world, BlockPos pos) {
+        CompressyConfig config = CompressyConfig.get();
+        CompressedBlock block = CompressedBlockStorage.get(world, pos);
+        DisplayRegistry.Displays displays = DisplayRegistry.get(world).get(pos);
+        boolean entities = block != null && !config.isClientRendered();
+
+        boolean wantLabel = entities && config.showRomanNumerals && world.getBlockState(pos.up()).isAir();
+        boolean hasLabel = displays != null && displays.label() != null;
+
+        boolean wantOverlay = entities && block.level() > 1 && config.showDarkeningOverlay
+            && !config.mergeOverlays && isExposed(world, pos);
+        boolean hasOverlay = displays != null && displays.overlay() != null;
+
+        // A block without visuals yet must fit under the display caps
+        if ((wantLabel || wantOverlay) && !hasLabel && !hasOverlay && !DisplayBudget.allows(world, pos, block.owner())) {
+            wantLabel = false;
+            wantOverlay = false;
+        }
+
+        if (wantLabel && !hasLabel) {
+            CompressyBlockHandler.spawnLabel(world, pos, block.level(), block.owner());
+        } else if (!wantLabel && hasLabel) {
+            displays.label().discard();
+        }
+        if (wantOverlay && !hasOverlay) {
+            CompressyBlockHandler.spawnBlockOverlay(world, pos, block.level(), block.owner());
+        } else if (!wantOverlay && hasOverlay) {
+            displays.overlay().discard();
+        }
+        return wantLabel != hasLabel || wantOverlay != hasOverlay;
+    }
+
+    /**
+     * Check if at least one face of the block can be seen.
+     *
+     * Neighbours in unloaded chunks count as exposed - looking them up would load the chunk
+     * (and this runs from chunk loads, the dirty queue and the reconciler).
+     */
+    public static boolean isExposed(ServerWorld world, BlockPos pos) {
+        BlockPos.Mutable neighbor = new BlockPos.Mutable();
+        int chunkX = pos.getX() >> 4;
+        int chunkZ = pos.getZ() >> 4;
+        for (Direction direction : DIRECTIONS) {
+            neighbor.set(pos, direction);
+            int neighborChunkX = neighbor.getX() >> 4;
+            int neighborChunkZ = neighbor.getZ() >> 4;
+            if ((neighborChunkX != chunkX || neighborChunkZ != chunkZ)
+                    && !world.isChunkLoaded(neighborChunkX, neighborChunkZ)) {
+                return true;
+            }
+            if (!world.getBlockState(neighbor).isOpaqueFullCube()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,287 @@
+package com.compressy.world;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.compressy.CompressyBlockHandler;
+import com.compressy.CompressyMod;
+import com.compressy.config.CompressyConfig;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import net.minecraft.entity.decoration.DisplayEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.chunk.WorldChunk;
+
+/**
+ * Merges the darkening overlays of adjacent same-tier blocks into as few boxes as possible
+ * ("entities" render mode with {@code display.mergeOverlays}).
+ *
+ * WHY:
+ * One BLOCK_DISPLAY per placed block makes a 16x16 storage wall 256 entities.
+ * Merged, the same wall is ONE entity with a non-uniform scale.
+ *
+ * HOW IT WORKS:
+ * - Boxes never cross chunk section borders, so a change never touches more than ONE section
+ * - Greedy meshing: from each uncovered block, grow the box along X, then Z, then Y
+ *   as long as every block in the new slice has the same tier
+ * - Each box becomes one overlay entity (see {@link CompressyBlockHandler#spawnOverlay}),
+ *   tagged with its section-local extent and tier
+ *
+ * A single place or break ({@link #update}) only splits the box that covered the block:
+ * that box is discarded, its blocks (and the changed one) are meshed again, and the new
+ * boxes are joined with same-tier neighbours they share a whole face with.
+ * Every other box in the section stays as it is. {@link #rebuild} re-merges the whole section
+ * (bulk removals, the reconciler, boxes from older versions without an extent tag).
+ *
+ * Merged overlays are tagged with their section (not a block) and tracked by the {@link DisplayRegistry}.
+ */
+public class OverlayMerger {
+
+    private static final int SIZE = 16;
+
+    /**
+     * Re-merge around a compressed block that was removed.
+     */
+    public static void onRemoved(ServerWorld world, BlockPos pos) {
+        CompressyConfig config = CompressyConfig.get();
+        if (config.mergeOverlays && config.showDarkeningOverlay && !config.isClientRendered()) {
+            update(world, pos);
+        }
+    }
+
+    /**
+     * Split and re-merge only the box around one changed position.
+     */
+    public static void update(ServerWorld world, BlockPos pos) {
+        ChunkSectionPos section = ChunkSectionPos.from(pos);
+        DisplayRegistry registry = DisplayRegistry.get(world);
+        List<DisplayRegistry.Box> boxes = registry.boxes(section.asLong());
+
+        int localX = pos.getX() & 15;
+        int localY = pos.getY() & 15;
+        int localZ = pos.getZ() & 15;
+        DisplayRegistry.Box hit = null;
+        for (DisplayRegistry.Box box : boxes) {
+            if (!box.hasExtent()) {
+                rebuild(world, section); // Spawned by an older version - extent unknown
+                return;
+            }
+            if (box.contains(localX, localY, localZ)) {
+                hit = box;
+            }
+        }
+
+        // Cells to mesh again: the split box and the changed block
+        int[] tiers = new int[SIZE * SIZE * SIZE];
+        CompressedBlockIndex index = CompressedBlockIndex.get(world);
+        BlockPos.Mutable cell = new BlockPos.Mutable();
+        if (hit != null) {
+            for (int y = hit.y(); y < hit.y() + hit.sizeY(); y++) {
+                for (int z = hit.z(); z < hit.z() + hit.sizeZ(); z++) {
+                    for (int x = hit.x(); x < hit.x() + hit.sizeX(); x++) {
+                        tiers[index(x, y, z)] = getTier(index, cell.set(section.getMinX() + x,
+                            section.getMinY() + y, section.getMinZ() + z));
+                    }
+                }
+            }
+            hit.entity().discard();
+        }
+        tiers[index(localX, localY, localZ)] = getTier(index, pos);
+
+        // A per-block overlay from before merging was enabled - the boxes replace it
+        DisplayRegistry.Displays displays = registry.get(pos);
+        if (displays != null && displays.overlay() != null) {
+            displays.overlay().discard();
+        }
+
+        List<int[]> merged = mesh(tiers);
+
+        // Join the new boxes with neighbours they share a whole face with
+        List<DisplayRegistry.Box> neighbours = new ArrayList<>(boxes);
+        neighbours.remove(hit);
+        for (int i = 0; i < merged.size(); i++) {
+            int[] box = merged.get(i);
+            boolean grown = true;
+            while (grown) {
+                grown = false;
+                for (int j = 0; j < neighbours.size(); j++) {
+                    DisplayRegistry.Box neighbour = neighbours.get(j);
+                    int[] other = { neighbour.x(), neighbour.y(), neighbour.z(),
+                        neighbour.sizeX(), neighbour.sizeY(), neighbour.sizeZ(), neighbour.tier() };
+                    if (join(box, other)) {
+                        neighbour.entity().discard();
+                        neighbours.remove(j);
+                        grown = true;
+                        break;
+                    }
+                }
+                for (int j = i + 1; j < merged.size() && !grown; j++) {
+                    if (join(box, merged.get(j))) {
+                        merged.remove(j);
+                        grown = true;
+                    }
+                }
+            }
+        }
+
+        for (int[] box : merged) {
+            spawnBox(world, section, box);
+        }
+    }
+
+    /**
+     * Replace all overlays of a section with freshly merged boxes.
+     */
+    public static void rebuild(ServerWorld world, ChunkSectionPos section) {
+        DisplayRegistry registry = DisplayRegistry.get(world);
+        registry.discardBoxes(section.asLong());
+
+        for (int[] box : mesh(collectTiers(world, section, registry))) {
+            spawnBox(world, section, box);
+        }
+    }
+
+    /**
+     * Greedily cover every block of tier 2+ with boxes of one tier.
+     * The grid is consumed (covered cells are cleared).
+     *
+     * @return Boxes as {x, y, z, sizeX, sizeY, sizeZ, tier} in section-local coordinates
+     */
+    private static List<int[]> mesh(int[] tiers) {
+        List<int[]> boxes = new ArrayList<>();
+        for (int y = 0; y < SIZE; y++) {
+            for (int z = 0; z < SIZE; z++) {
+                for (int x = 0; x < SIZE; x++) {
+                    int tier = tiers[index(x, y, z)];
+                    if (tier <= 1) {
+                        continue; // Empty, already covered, or tier 1 (no darkening)
+                    }
+
+                    // Grow along X
+                    int sizeX = 1;
+                    while (x + sizeX < SIZE && tiers[index(x + sizeX, y, z)] == tier) {
+                        sizeX++;
+                    }
+                    // Grow along Z while the whole row matches
+                    int sizeZ = 1;
+                    while (z + sizeZ < SIZE && isRun(tiers, x, y, z + sizeZ, sizeX, tier)) {
+                        sizeZ++;
+                    }
+                    // Grow along Y while the whole layer matches
+                    int sizeY = 1;
+                    while (y + sizeY < SIZE && isLayer(tiers, x, y + sizeY, z, sizeX, sizeZ, tier)) {
+                        sizeY++;
+                    }
+
+                    // Mark the box as covered
+                    for (int dy = 0; dy < sizeY; dy++) {
+                        for (int dz = 0; dz < sizeZ; dz++) {
+                            for (int dx = 0; dx < sizeX; dx++) {
+                                tiers[index(x + dx, y + dy, z + dz)] = 0;
+                            }
+                        }
+                    }
+                    boxes.add(new int[] { x, y, z, sizeX, sizeY, sizeZ, tier });
+                }
+            }
+        }
+        return boxes;
+    }
+
+    /**
+     * Grow {@code box} by {@code other} if both have the same tier and share a whole face.
+     *
+     * @return true if the boxes were joined (box now covers both)
+     */
+    private static boolean join(int[] box, int[] other) {
+        if (box[6] != other[6]) {
+            return false;
+        }
+        for (int axis = 0; axis < 3; axis++) {
+            int a = (axis + 1) % 3;
+            int b = (axis + 2) % 3;
+            if (box[a] != other[a] || box[a + 3] != other[a + 3] || box[b] != other[b] || box[b + 3] != other[b + 3]) {
+                continue; // Faces across this axis differ
+            }
+            if (box[axis] + box[axis + 3] == other[axis] || other[axis] + other[axis + 3] == box[axis]) {
+                box[axis] = Math.min(box[axis], other[axis]);
+                box[axis + 3] += other[axis + 3];
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void spawnBox(ServerWorld world, ChunkSectionPos section, int[] box) {
+        DisplayEntity.BlockDisplayEntity overlay = CompressyBlockHandler.spawnOverlay(world,
+            new BlockPos(section.getMinX() + box[0], section.getMinY() + box[1], section.getMinZ() + box[2]),
+            box[3], box[4], box[5], box[6]);
+        if (overlay != null) {
+            overlay.addCommandTag(DisplayRegistry.sectionTag(section));
+            overlay.addCommandTag(DisplayRegistry.boxTag(box[0], box[1], box[2], box[3], box[4], box[5], box[6]));
+            world.spawnEntity(overlay);
+        }
+    }
+
+    private static int getTier(CompressedBlockIndex index, BlockPos pos) {
+        CompressedBlock block = index.get(pos);
+        return block == null ? 0 : block.level();
+    }
+
+    /**
+     * Tier of every compressed block in the section (0 = none).
+     * Per-block overlays found on the way are discarded - the boxes replace them.
+     */
+    private static int[] collectTiers(ServerWorld world, ChunkSectionPos section, DisplayRegistry registry) {
+        int[] tiers = new int[SIZE * SIZE * SIZE];
+        // Never load a chunk for its overlays (callers skip unloaded chunks; this is a safety net)
+        WorldChunk chunk = world.getChunkManager().getWorldChunk(section.getSectionX(), section.getSectionZ());
+        CompressedChunkData data = chunk != null ? chunk.getAttached(CompressyMod.COMPRESSED_BLOCKS) : null;
+        if (data == null) {
+            return tiers;
+        }
+
+        int sectionY = section.getSectionY();
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+        for (Long2ObjectMap.Entry<CompressedBlock> entry : data.entries()) {
+            long packed = entry.getLongKey();
+            int y = BlockPos.unpackLongY(packed);
+            if (ChunkSectionPos.getSectionCoord(y) != sectionY) {
+                continue;
+            }
+            int x = BlockPos.unpackLongX(packed);
+            int z = BlockPos.unpackLongZ(packed);
+            tiers[index(x & 15, y & 15, z & 15)] = entry.getValue().level();
+
+            DisplayRegistry.Displays displays = registry.get(pos.set(x, y, z));
+            if (displays != null && displays.overlay() != null) {
+                displays.overlay().discard();
+            }
+        }
+        return tiers;
+    }
+
+    private static boolean isRun(int[] tiers, int x, int y, int z, int length, int tier) {
+        for (int dx = 0; dx < length; dx++) {
+            if (tiers[index(x + dx, y, z)] != tier) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isLayer(int[] tiers, int x, int y, int z, int sizeX, int sizeZ, int tier) {
+        for (int dz = 0; dz < sizeZ; dz++) {
+            if (!isRun(tiers, x, y, z + dz, sizeX, tier)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int index(int x, int y, int z) {
+        return (y << 8) | (z << 4) | x;
+    }
+}
@@ -0,0 +1,248 @@
+package com.compressy.world;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.compressy.CompressyMod;
+import com.compressy.config.CompressyConfig;
+
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.block.Block;
+import net.minecraft.block.Blocks;
+import net.minecraft.registry.Registries;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.WorldChunk;
+
+/**
+ * Background check of placed compressed blocks against the world, within a per-tick time budget.
+ *
+ * WHY:
+ * Only a player breaking a block cleans up after it. Explosions, pistons, /setblock, /fill,
+ * fluids and mods remove blocks directly and leave compression data and display entities behind.
+ *
+ * HOW IT WORKS:
+ * - Each world has a cursor over a snapshot of its chunks with compressed data or display entities
+ * - Every server tick, blocks are checked until {@code performance.reconcileBudgetMicros} is used up;
+ *   the next tick continues where this one stopped
+ * - Data whose block is gone, replaced, or no longer registered (its mod was removed) is removed
+ *   together with its entities
+ * - Entities without data are discarded; missing visuals are respawned (see {@link DisplayVisibility})
+ * - Only loaded chunks are checked, and neighbours in unloaded chunks are never looked up
+ *   ({@link DisplayVisibility#isExposed}), so a pass never loads a chunk
+ * - After a full pass a world rests for PASS_INTERVAL_TICKS, then starts a new snapshot
+ *
+ * Progress and counts are shown by {@code /cblocks admin reconcile}.
+ */
+public class Reconciler {
+
+    // Rest between two passes over the same world (30 seconds)
+    private static final int PASS_INTERVAL_TICKS = 600;
+
+    /**
+     * Progress and totals of one world.
+     */
+    public static final class Status {
+        long[] chunkQueue = new long[0];
+        int chunkIndex;
+        long[] positionQueue = new long[0];
+        int positionIndex;
+        boolean chunkChanged;
+        int restTicks;
+
+        public int passes;
+        public long chunksChecked;
+        public long blocksChecked;
+        public long dataRemoved;
+        public long entitiesRemoved;
+        public long repaired;
+
+        public int getChunkIndex() {
+            return chunkIndex;
+        }
+
+        public int getChunkCount() {
+            return chunkQueue.length;
+        }
+
+        public boolean isResting() {
+            return chunkIndex >= chunkQueue.length;
+        }
+    }
+
+    private static final Map<RegistryKey<World>, Status> STATUS = new HashMap<>();
+    private static int nextWorld;
+
+    public static void register() {
+        ServerTickEvents.END_SERVER_TICK.register(Reconciler::tick);
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> STATUS.clear());
+    }
+
+    /**
+     * Get the progress of a world (never null).
+     */
+    public static Status getStatus(ServerWorld world) {
+        return STATUS.computeIfAbsent(world.getRegistryKey(), key -> new Status());
+    }
+
+    private static void tick(MinecraftServer server) {
+        int budget = CompressyConfig.get().reconcileBudgetMicros;
+        if (budget <= 0) {
+            return;
+        }
+        long deadline = System.nanoTime() + budget * 1000L;
+
+        // Rotate the starting world so a busy one can't starve the others
+        List<ServerWorld> worlds = new ArrayList<>();
+        server.getWorlds().forEach(worlds::add);
+        if (worlds.isEmpty()) {
+            return;
+        }
+        nextWorld = (nextWorld + 1) % worlds.size();
+        for (int i = 0; i < worlds.size() && System.nanoTime() < deadline; i++) {
+            step(worlds.get((nextWorld + i) % worlds.size()), deadline);
+        }
+    }
+
+    /**
+     * Check blocks of one world until the deadline or the end of its pass.
+     */
+    private static void step(ServerWorld world, long deadline) {
+        Status status = getStatus(world);
+        if (status.isResting()) {
+            if (status.restTicks-- > 0) {
+                return;
+            }
+            startPass(world, status);
+        }
+
+        int checked = 0;
+        while (status.chunkIndex < status.chunkQueue.length) {
+            long chunkKey = status.chunkQueue[status.chunkIndex];
+            int chunkX = ChunkPos.getPackedX(chunkKey);
+            int chunkZ = ChunkPos.getPackedZ(chunkKey);
+            if (!world.getChunkManager().isChunkLoaded(chunkX, chunkZ)) {
+                nextChunk(status);
+                continue;
+            }
+            if (status.positionIndex == 0 && status.positionQueue.length == 0) {
+                status.positionQueue = collectPositions(world, chunkKey);
+            }
+
+            BlockPos.Mutable pos = new BlockPos.Mutable();
+            while (status.positionIndex < status.positionQueue.length) {
+                if ((++checked & 15) == 0 && System.nanoTime() >= deadline) {
+                    return; // Out of time - continue here next tick
+                }
+                status.chunkChanged |= check(world, pos.set(status.positionQueue[status.positionIndex++]), status);
+                status.blocksChecked++;
+            }
+
+            finishChunk(world, chunkKey, status);
+            nextChunk(status);
+            if (System.nanoTime() >= deadline) {
+                return;
+            }
+        }
+        status.passes++;
+        status.restTicks = PASS_INTERVAL_TICKS;
+    }
+
+    private static void startPass(ServerWorld world, Status status) {
+        LongOpenHashSet chunks = new LongOpenHashSet(CompressedBlockIndex.get(world).chunkKeys());
+        for (long chunkKey : DisplayRegistry.get(world).chunkKeys()) {
+            chunks.add(chunkKey);
+        }
+        status.chunkQueue = chunks.toLongArray();
+        status.chunkIndex = 0;
+        status.positionQueue = new long[0];
+        status.positionIndex = 0;
+    }
+
+    private static void nextChunk(Status status) {
+        status.chunkIndex++;
+        status.chunksChecked++;
+        status.positionQueue = new long[0];
+        status.positionIndex = 0;
+        status.chunkChanged = false;
+    }
+
+    /**
+     * Every position in a chunk that has compressed data or display entities.
+     */
+    private static long[] collectPositions(ServerWorld world, long chunkKey) {
+        LongOpenHashSet positions = new LongOpenHashSet(DisplayRegistry.get(world).positions(chunkKey));
+        WorldChunk chunk = world.getChunkManager().getWorldChunk(ChunkPos.getPackedX(chunkKey), ChunkPos.getPackedZ(chunkKey));
+        CompressedChunkData data = chunk != null ? chunk.getAttached(CompressyMod.COMPRESSED_BLOCKS) : null;
+        if (data != null) {
+            for (long pos : data.positions()) {
+                positions.add(pos);
+            }
+        }
+        return positions.toLongArray();
+    }
+
+    /**
+     * Check one position - remove or repair whatever does not match the world.
+     *
+     * @return true if anything was changed
+     */
+    private static boolean check(ServerWorld world, BlockPos pos, Status status) {
+        CompressedBlock block = CompressedBlockStorage.get(world, pos);
+        DisplayRegistry registry = DisplayRegistry.get(world);
+
+        if (block == null) {
+            // Entities without data
+            DisplayRegistry.Displays displays = registry.get(pos);
+            if (displays != null) {
+                status.entitiesRemoved += (displays.label() != null ? 1 : 0) + (displays.overlay() != null ? 1 : 0);
+                registry.discard(pos);
+                return true;
+            }
+            return false;
+        }
+
+        // An ID that no longer resolves (its mod was removed) can never match - the data is orphaned
+        Identifier id = Identifier.tryParse(block.blockId());
+        Block expected = id != null && Registries.BLOCK.containsId(id) ? Registries.BLOCK.get(id) : Blocks.AIR;
+        if (expected == Blocks.AIR || !world.getBlockState(pos).isOf(expected)) {
+            // The block was removed or replaced without going through the break handler
+            CompressedBlockStorage.remove(world, pos);
+            registry.discard(pos);
+            status.dataRemoved++;
+            return true;
+        }
+
+        if (DisplayVisibility.refresh(world, pos)) {
+            status.repaired++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Fix the merged overlays of a chunk: drop boxes of emptied sections, re-merge changed ones.
+     */
+    private static void finishChunk(ServerWorld world, long chunkKey, Status status) {
+        DisplayRegistry registry = DisplayRegistry.get(world);
+        CompressedBlockIndex index = CompressedBlockIndex.get(world);
+        for (long sectionKey : registry.boxSections(chunkKey)) {
+            ChunkSectionPos section = ChunkSectionPos.from(sectionKey);
+            if (!index.mightContain(section.getMinPos())) {
+                status.entitiesRemoved += registry.discardBoxes(sectionKey);
+            } else if (status.chunkChanged) {
+                OverlayMerger.rebuild(world, section);
+            }
+        }
+    }
+}
@@ -1,8 +0,0 @@
-# ========================================
-# Update Text Display
-# ========================================
-# Subtle animation for compression level indicator
-
-# Rotate slightly for visual interest
-data modify entity @s transformation.left_rotation set value [0f, 0.01f, 0f, 1f]
-
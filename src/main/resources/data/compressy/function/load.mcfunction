@@ -8,7 +8,6 @@
 scoreboard objectives add cb.data dummy
 scoreboard objectives add cb.level dummy
 scoreboard objectives add cb.temp dummy
-scoreboard objectives add cb.cooldown dummy
 
 # Constants
 scoreboard players set #max_level cb.data 32